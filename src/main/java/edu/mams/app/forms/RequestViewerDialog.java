@@ -11,6 +11,7 @@ import edu.mams.app.model.schedule.Assignment;
 import edu.mams.app.model.schedule.Course;
 import edu.mams.app.model.schedule.Day;
 import edu.mams.app.model.schedule.Week;
+import edu.mams.app.model.util.ScheduleBuilder;
 
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -174,6 +175,7 @@ public final class RequestViewerDialog extends JDialog {
 
         requireRequestsList(targetDay).add(newReq);
         tableModel.reload();
+        offerRepair(targetDay);
     }
 
     private void onEdit() {
@@ -205,6 +207,49 @@ public final class RequestViewerDialog extends JDialog {
         }
 
         tableModel.reload();
+        offerRepair(newDay);
+    }
+
+    // Offers to move only the classes a changed request rules out, keeping the rest of the day
+    private void offerRepair(Day day) {
+        if (day == null || day.getEntries() == null || day.getSections() == null) return;
+
+        int violations;
+        try {
+            violations = ScheduleBuilder.countRequestViolations(day);
+        } catch (RuntimeException ex) {
+            return; // day is not a generated schedule yet
+        }
+        if (violations == 0) return;
+
+        int ok = JOptionPane.showConfirmDialog(
+                this,
+                "The schedule for " + day.getDate() + " has " + violations + " class(es) at a time the requests avoid.\n"
+                        + "Move only the affected classes and keep the rest of the day?",
+                "Repair Schedule",
+                JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.QUESTION_MESSAGE
+        );
+        if (ok != JOptionPane.OK_OPTION) return;
+
+        try {
+            ScheduleBuilder.Repair repair = ScheduleBuilder.repairSchedule(day);
+            day.setEntries(repair.entries());
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Repaired the schedule for " + day.getDate() + " by moving " + repair.changedCells() + " class(es)."
+                            + (repair.minimal() ? "" : "\nThe search stopped early, so fewer moves may be possible."),
+                    "Repair Schedule",
+                    JOptionPane.INFORMATION_MESSAGE
+            );
+        } catch (IllegalStateException ex) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    ex.getMessage(),
+                    "Repair Failed",
+                    JOptionPane.ERROR_MESSAGE
+            );
+        }
     }
 
     private void onDelete() {
@@ -15,6 +15,8 @@ import javax.swing.border.TitledBorder;
 import java.awt.*;
 import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
 import java.sql.Time;
 import java.time.LocalDate;
@@ -23,9 +25,27 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class WeekEdit extends JFrame {
+    // A day Quick Generate finished, with the exception that stopped it or null when it succeeded
+    private record DayOutcome(LocalDate date, Throwable failure) {
+        boolean succeeded() {
+            return failure == null;
+        }
+
+        String error() {
+            return failure.getMessage() != null ? failure.getMessage() : failure.toString();
+        }
+    }
+
     private static final File file = new File("schedule.json");
     private final static List<Assignment> classes = new ArrayList<>();
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("EEE, MMM d", Locale.US);
@@ -59,6 +79,7 @@ public class WeekEdit extends JFrame {
     private JTextArea clubsArea;
     private LocalDate activeDate;
     private boolean refreshingUi;
+    private boolean generationRunning;
 
     public WeekEdit(Week week, Schedule schedule) {
         AppTheme.install();
@@ -154,6 +175,10 @@ public class WeekEdit extends JFrame {
         // new RequestViewerDialog(owner, week, teacherList, assignmentList).setVisible(true);
 
         new RequestViewerDialog(owner, week, classes).setVisible(true);
+
+        // Requests may have repaired the visible day
+        LocalDate current = (LocalDate) daySelector.getSelectedItem();
+        if (current != null) generateDay(week.getDay(current));
     }
 
     static String fmt(LocalDate d) {
@@ -691,6 +716,7 @@ public class WeekEdit extends JFrame {
         Map<LocalDate, Boolean> splitSelections = dialog.getSplitSelections();
         Map<LocalDate, String> splitCourseSelections = dialog.getSplitCourseSelections();
         List<LocalDate> splitDisabledDates = new ArrayList<>();
+        List<Day> daysToGenerate = new ArrayList<>();
 
         for (Map.Entry<LocalDate, String> entry : selections.entrySet()) {
             LocalDate date = entry.getKey();
@@ -710,7 +736,6 @@ public class WeekEdit extends JFrame {
             }
             day.setClasses(new ArrayList<>(picked));
 
-            day.loadRequests();
             day.setTemplate(templateName);
 
             Boolean splitRequested = splitSelections.get(date);
@@ -739,39 +764,187 @@ public class WeekEdit extends JFrame {
                 day.setSplitCourse(null);
             }
 
-            try {
-                day.generateBlocks();
-            } catch (IllegalStateException e) {
-                JOptionPane.showMessageDialog(
-                        this,
-                        "Error generating schedule for " + fmt(date) + ": " + e.getMessage(),
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE
-                );
-            } catch (RuntimeException e) {
-                JOptionPane.showMessageDialog(
-                        this,
-                        "Error generating schedule for " + fmt(date) + ": " + e.getMessage(),
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE
-                );
+            daysToGenerate.add(day);
+        }
+
+        runQuickGenerate(daysToGenerate, splitDisabledDates);
+    }
+
+    // Loads requests and generates every day on a pool of its own. Progress goes back to the
+    // EDT as days finish, and failures are reported together once all are done. Cancel stops
+    // the pool; the editor stays locked until every running day has noticed and stopped.
+    private void runQuickGenerate(List<Day> days, List<LocalDate> splitDisabledDates) {
+        ExecutorService pool = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(days.size(), Runtime.getRuntime().availableProcessors())),
+                Thread.ofPlatform().daemon().name("quick-generate-", 0).factory());
+
+        JProgressBar progressBar = new JProgressBar(0, days.size());
+        progressBar.setStringPainted(true);
+        progressBar.setString("0 of " + days.size() + " days generated");
+
+        JButton stopButton = new JButton("Cancel");
+        stopButton.addActionListener(_ -> {
+            stopButton.setEnabled(false);
+            progressBar.setString("Cancelling...");
+            pool.shutdownNow();
+        });
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttons.add(stopButton);
+
+        JPanel panel = new JPanel(new BorderLayout(0, 8));
+        panel.setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
+        panel.add(new JLabel("Generating schedules..."), BorderLayout.NORTH);
+        panel.add(progressBar, BorderLayout.CENTER);
+        panel.add(buttons, BorderLayout.SOUTH);
+
+        JDialog progressDialog = new JDialog(SwingUtilities.getWindowAncestor(mainPanel), "Quick Generate", Dialog.ModalityType.MODELESS);
+        progressDialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        progressDialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (stopButton.isEnabled()) stopButton.doClick();
             }
+        });
+        progressDialog.setContentPane(panel);
+        progressDialog.pack();
+        progressDialog.setLocationRelativeTo(mainPanel);
 
-        }
+        setGenerationControlsEnabled(false);
+        progressDialog.setVisible(true);
 
-        if (!splitDisabledDates.isEmpty()) {
-            String joinedDates = splitDisabledDates.stream().map(WeekEdit::fmt).collect(Collectors.joining(", "));
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Split was disabled for day(s) without a valid partner split class in that day's selected classes: " + joinedDates,
-                    "Quick Generate",
-                    JOptionPane.WARNING_MESSAGE
-            );
-        }
+        new SwingWorker<List<DayOutcome>, DayOutcome>() {
+            private int finished;
 
-        // Optional: refresh UI to whichever day is currently selected
-        LocalDate current = (LocalDate) daySelector.getSelectedItem();
-        if (current != null) generateDay(week.getDay(current));
+            @Override
+            protected List<DayOutcome> doInBackground() throws Exception {
+                CompletionService<DayOutcome> completion = new ExecutorCompletionService<>(pool);
+                for (Day day : days) {
+                    completion.submit(() -> {
+                        try {
+                            day.loadRequests();
+                            day.generateBlocks();
+                            return new DayOutcome(day.getDate(), null);
+                        } catch (Throwable e) {
+                            return new DayOutcome(day.getDate(), e);
+                        }
+                    });
+                }
+
+                // Days dropped by a cancel never complete, so stop once the pool has wound down
+                List<DayOutcome> outcomes = new ArrayList<>();
+                try {
+                    while (outcomes.size() < days.size()) {
+                        Future<DayOutcome> done = completion.poll(100, TimeUnit.MILLISECONDS);
+                        if (done != null) {
+                            DayOutcome outcome = done.get();
+                            outcomes.add(outcome);
+                            publish(outcome);
+                        } else if (pool.isTerminated()) {
+                            break;
+                        }
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+                return outcomes;
+            }
+
+            @Override
+            protected void process(List<DayOutcome> chunks) {
+                finished += chunks.size();
+                progressBar.setValue(finished);
+                if (stopButton.isEnabled()) {
+                    progressBar.setString(finished + " of " + days.size() + " days generated");
+                }
+            }
+
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                setGenerationControlsEnabled(true);
+
+                List<DayOutcome> outcomes;
+                try {
+                    outcomes = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    UiExceptionHandler.showUnexpectedError(e.getCause());
+                    return;
+                }
+
+                if (!stopButton.isEnabled()) {
+                    long generated = outcomes.stream().filter(DayOutcome::succeeded).count();
+                    JOptionPane.showMessageDialog(
+                            WeekEdit.this,
+                            "Quick Generate was cancelled. " + generated + " of " + days.size() + " days were generated.",
+                            "Quick Generate",
+                            JOptionPane.WARNING_MESSAGE
+                    );
+                } else {
+                    String failures = outcomes.stream()
+                            .filter(outcome -> !outcome.succeeded())
+                            .sorted(Comparator.comparing(DayOutcome::date))
+                            .map(outcome -> fmt(outcome.date()) + ": " + outcome.error())
+                            .collect(Collectors.joining("\n"));
+                    if (!failures.isEmpty()) {
+                        JOptionPane.showMessageDialog(
+                                WeekEdit.this,
+                                "Some days could not be generated:\n" + failures,
+                                "Quick Generate",
+                                JOptionPane.ERROR_MESSAGE
+                        );
+                    }
+                }
+
+                if (!splitDisabledDates.isEmpty()) {
+                    String joinedDates = splitDisabledDates.stream().map(WeekEdit::fmt).collect(Collectors.joining(", "));
+                    JOptionPane.showMessageDialog(
+                            WeekEdit.this,
+                            "Split was disabled for day(s) without a valid partner split class in that day's selected classes: " + joinedDates,
+                            "Quick Generate",
+                            JOptionPane.WARNING_MESSAGE
+                    );
+                }
+
+                // Optional: refresh UI to whichever day is currently selected
+                LocalDate current = (LocalDate) daySelector.getSelectedItem();
+                if (current != null) generateDay(week.getDay(current));
+            }
+        }.execute();
+    }
+
+    // Keeps the week from being read, edited or regenerated on the EDT while background
+    // generation rewrites its days
+    private void setGenerationControlsEnabled(boolean enabled) {
+        generationRunning = !enabled;
+        quickGenerate.setEnabled(enabled);
+        generate.setEnabled(enabled);
+        generateTemplateButton.setEnabled(enabled);
+        insertTemplateButton.setEnabled(enabled);
+        clearAllButton.setEnabled(enabled);
+        clearClassesButton.setEnabled(enabled);
+        saveButton.setEnabled(enabled);
+        cancelButton.setEnabled(enabled);
+        daySelector.setEnabled(enabled);
+        viewRequestButton.setEnabled(enabled);
+        template.setEnabled(enabled);
+        sectionSelect.setEnabled(enabled);
+        splitButton.setEnabled(enabled);
+        splitClassSelector.setEnabled(enabled && splitButton.isSelected());
+        editClasses.setEnabled(enabled);
+        openHTML.setEnabled(enabled);
+        setTreeEnabled(dynamicPanel, enabled);
+    }
+
+    private static void setTreeEnabled(Container container, boolean enabled) {
+        for (Component child : container.getComponents()) {
+            child.setEnabled(enabled);
+            if (child instanceof Container nested) {
+                setTreeEnabled(nested, enabled);
+            }
+        }
     }
 
     /**
@@ -854,7 +1027,8 @@ public class WeekEdit extends JFrame {
 
     private void updateModelFromUI() {
         LocalDate date = activeDate;
-        if (date == null) return;
+        // The shown day may be one a background task is generating
+        if (date == null || generationRunning) return;
 
         Day updatedDay = getUpdatedDay(date);
         updatedDay.setNotes(parseLines(notesArea));
@@ -2,6 +2,7 @@ package edu.mams.app.forms;
 
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
+import edu.mams.app.model.requests.RequestStore;
 import edu.mams.app.model.schedule.Schedule;
 import edu.mams.app.model.schedule.Week;
 
@@ -157,6 +158,7 @@ public class WeekSelector extends JFrame {
     public static void main(String[] args) {
         AppTheme.install();
         UiExceptionHandler.install();
+        RequestStore.getDefault().watch();
         Schedule schedule = Schedule.loadFromFile(FILE);
         SwingUtilities.invokeLater(() -> {
             new WeekSelector(schedule).setVisible(true);
@@ -0,0 +1,177 @@
+package edu.mams.app.model.requests;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable tokenizer that splits one CSV line at a time into cleaned fields without
+ * allocating per line.
+ * <p>
+ * The line is decoded into a char buffer that the tokenizer keeps, and quotes are resolved in
+ * place in the same pass that normalises en-dashes, em-dashes and minus signs to {@code '-'}.
+ * Each field is then exposed as an offset and length into that buffer, already trimmed and
+ * stripped of one layer of surrounding quotes the way {@link RequestLoader} cleans values, so
+ * callers only build strings for the fields they keep. Views stay valid until the next line
+ * is read. Instances are not thread-safe.
+ */
+final class CsvTokenizer {
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private char[] chars = new char[256];
+    private int[] starts = new int[8];
+    private int[] lengths = new int[8];
+    private int count;
+
+    /**
+     * Tokenizes a UTF-8 encoded line.
+     *
+     * @param bytes buffer holding the line
+     * @param offset position of the line in the buffer
+     * @param length number of bytes in the line, without its line break
+     * @return number of fields
+     */
+    int read(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        int n = 0;
+        while (n < length && bytes[offset + n] >= 0) {
+            chars[n] = (char) bytes[offset + n];
+            n++;
+        }
+        if (n < length) {
+            // Not plain ASCII; decode the whole line properly
+            CharBuffer out = CharBuffer.wrap(chars);
+            decoder.reset();
+            decoder.decode(ByteBuffer.wrap(bytes, offset, length), out, true);
+            decoder.flush(out);
+            n = out.position();
+        }
+        return tokenize(n);
+    }
+
+    /**
+     * Tokenizes a line of text.
+     *
+     * @param line line without its line break
+     * @return number of fields
+     */
+    int read(CharSequence line) {
+        int length = line.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            chars[i] = line.charAt(i);
+        }
+        return tokenize(length);
+    }
+
+    /**
+     * Returns the number of fields on the current line.
+     *
+     * @return field count
+     */
+    int fieldCount() {
+        return count;
+    }
+
+    /**
+     * Returns the buffer the field views point into.
+     *
+     * @return character buffer of the current line
+     */
+    char[] chars() {
+        return chars;
+    }
+
+    int start(int field) {
+        return starts[field];
+    }
+
+    int length(int field) {
+        return lengths[field];
+    }
+
+    /**
+     * Builds a string for a field.
+     *
+     * @param field field index
+     * @return cleaned field text
+     */
+    String string(int field) {
+        return new String(chars, starts[field], lengths[field]);
+    }
+
+    /**
+     * Tells whether a field equals some text, without building a string.
+     *
+     * @param field field index
+     * @param text text to compare with
+     * @return {@code true} when the cleaned field equals the text
+     */
+    boolean fieldEquals(int field, String text) {
+        int length = lengths[field];
+        if (length != text.length()) {
+            return false;
+        }
+        int start = starts[field];
+        for (int i = 0; i < length; i++) {
+            if (chars[start + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Resolves quotes and dashes in place, then records each field's cleaned bounds
+    private int tokenize(int length) {
+        count = 0;
+        int write = 0;
+        int fieldStart = 0;
+        boolean inQuotes = false;
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c == '"') {
+                if (inQuotes && i + 1 < length && chars[i + 1] == '"') {
+                    chars[write++] = '"';
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (c == ',' && !inQuotes) {
+                addField(fieldStart, write);
+                fieldStart = write;
+            } else {
+                chars[write++] = c == '\u2013' || c == '\u2014' || c == '\u2212' ? '-' : c;
+            }
+        }
+        addField(fieldStart, write);
+        return count;
+    }
+
+    // Trims, drops one pair of surrounding quotes and trims again, like RequestLoader.getCleaned
+    private void addField(int start, int end) {
+        while (start < end && chars[start] <= ' ') start++;
+        while (end > start && chars[end - 1] <= ' ') end--;
+        if (end - start >= 2 && chars[start] == '"' && chars[end - 1] == '"') {
+            start++;
+            end--;
+            while (start < end && chars[start] <= ' ') start++;
+            while (end > start && chars[end - 1] <= ' ') end--;
+        }
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            lengths = Arrays.copyOf(lengths, count * 2);
+        }
+        starts[count] = start;
+        lengths[count++] = end - start;
+    }
+
+    private void ensureCapacity(int length) {
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package edu.mams.app.model.requests;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Hand-written parsers for the date and time shapes request-form exports use.
+ * <p>
+ * Dates are read as {@code yyyy-MM-dd} or {@code M/d/yyyy} and times as {@code H:mm},
+ * {@code h:mm:ss a} or {@code h:mm a}, straight from a char buffer and without exceptions.
+ * Each parser accepts only the exact shape and a valid value and returns {@code null}
+ * otherwise, leaving anything unusual (wider fields, out-of-range days the formatters resolve
+ * leniently) to {@link RequestLoader}'s formatter chain. An export tends to use one format
+ * throughout, so the shape that last succeeded is tried first.
+ */
+final class FormDateParser {
+    private static final int ISO_DATE = 0;
+    private static final int SLASHED_DATE = 1;
+    private static final int DATE_SHAPES = 2;
+
+    private static final int HOUR_MINUTE = 0;
+    private static final int CLOCK_SECONDS = 1;
+    private static final int CLOCK_MINUTE = 2;
+    private static final int TIME_SHAPES = 3;
+
+    // The AM/PM text the formatter chain accepts, in the same default locale
+    private static final String AM = DateTimeFormatter.ofPattern("a").format(LocalTime.of(1, 0));
+    private static final String PM = DateTimeFormatter.ofPattern("a").format(LocalTime.of(13, 0));
+
+    private static volatile int lastDateShape = ISO_DATE;
+    private static volatile int lastTimeShape = HOUR_MINUTE;
+
+    private FormDateParser() {
+    }
+
+    /**
+     * Parses a cleaned date.
+     *
+     * @param chars buffer holding the text
+     * @param start offset of the text
+     * @param length length of the text
+     * @return parsed date, or {@code null} when the text is not one of the known shapes
+     */
+    static LocalDate parseDate(char[] chars, int start, int length) {
+        int first = lastDateShape;
+        for (int i = 0; i < DATE_SHAPES; i++) {
+            int shape = (first + i) % DATE_SHAPES;
+            LocalDate date = switch (shape) {
+                case ISO_DATE -> parseIsoDate(chars, start, length);
+                case SLASHED_DATE -> parseSlashedDate(chars, start, length);
+                default -> throw new IllegalStateException("Unknown date shape: " + shape);
+            };
+            if (date != null) {
+                if (shape != first) lastDateShape = shape;
+                return date;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a cleaned time.
+     *
+     * @param chars buffer holding the text
+     * @param start offset of the text
+     * @param length length of the text
+     * @return parsed time, or {@code null} when the text is not one of the known shapes
+     */
+    static LocalTime parseTime(char[] chars, int start, int length) {
+        int first = lastTimeShape;
+        for (int i = 0; i < TIME_SHAPES; i++) {
+            int shape = (first + i) % TIME_SHAPES;
+            LocalTime time = parseTime(chars, start, length, shape);
+            if (time != null) {
+                if (shape != first) lastTimeShape = shape;
+                return time;
+            }
+        }
+        return null;
+    }
+
+    // yyyy-MM-dd
+    private static LocalDate parseIsoDate(char[] c, int s, int length) {
+        if (length != 10 || c[s + 4] != '-' || c[s + 7] != '-') {
+            return null;
+        }
+        return date(digits(c, s, s + 4), digits(c, s + 5, s + 7), digits(c, s + 8, s + 10));
+    }
+
+    // M/d/yyyy, which also covers MM/dd/yyyy
+    private static LocalDate parseSlashedDate(char[] c, int s, int length) {
+        int end = s + length;
+        int firstSlash = indexOf(c, s + 1, s + 2, end, '/');
+        if (firstSlash < 0) {
+            return null;
+        }
+        int secondSlash = indexOf(c, firstSlash + 2, firstSlash + 3, end, '/');
+        if (secondSlash < 0 || end - secondSlash != 5) {
+            return null;
+        }
+        int year = digits(c, secondSlash + 1, end);
+        // yyyy is a year of era, which starts at 1
+        if (year < 1) {
+            return null;
+        }
+        return date(year, digits(c, s, firstSlash), digits(c, firstSlash + 1, secondSlash));
+    }
+
+    private static LocalTime parseTime(char[] c, int s, int length, int shape) {
+        int end = s + length;
+        int colon = indexOf(c, s + 1, s + 2, end, ':');
+        if (colon < 0 || colon + 3 > end) {
+            return null;
+        }
+        int hour = digits(c, s, colon);
+        int minute = digits(c, colon + 1, colon + 3);
+        if (hour < 0 || minute < 0 || minute > 59) {
+            return null;
+        }
+        if (shape == HOUR_MINUTE) {
+            return colon + 3 == end && hour <= 23 ? LocalTime.of(hour, minute) : null;
+        }
+        int second = 0;
+        int suffix = colon + 3;
+        switch (shape) {
+            case CLOCK_MINUTE -> {
+                // The AM/PM marker follows the minutes directly
+            }
+            case CLOCK_SECONDS -> {
+                if (suffix + 3 > end || c[suffix] != ':') {
+                    return null;
+                }
+                second = digits(c, suffix + 1, suffix + 3);
+                if (second < 0 || second > 59) {
+                    return null;
+                }
+                suffix += 3;
+            }
+            default -> throw new IllegalStateException("Unknown time shape: " + shape);
+        }
+        if (suffix >= end || c[suffix] != ' ' || hour < 1 || hour > 12) {
+            return null;
+        }
+        if (matches(c, suffix + 1, end, AM)) {
+            return LocalTime.of(hour % 12, minute, second);
+        }
+        if (matches(c, suffix + 1, end, PM)) {
+            return LocalTime.of(hour % 12 + 12, minute, second);
+        }
+        return null;
+    }
+
+    private static LocalDate date(int year, int month, int day) {
+        if (year < 0 || month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+        if (day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    // Value of the ASCII digits in [from, to), or -1 if any character is not a digit
+    private static int digits(char[] c, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = c[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // First position in [from, last] before the end of the text holding the character, or -1
+    private static int indexOf(char[] c, int from, int last, int end, char target) {
+        for (int i = from; i <= last && i < end; i++) {
+            if (c[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(char[] c, int from, int to, String text) {
+        if (to - from != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (c[from + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
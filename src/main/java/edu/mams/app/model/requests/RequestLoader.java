@@ -2,14 +2,24 @@ package edu.mams.app.model.requests;
 
 import edu.mams.app.model.people.Teacher;
 
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
 
 /**
  * Parses teacher-request CSV exports into request model objects.
@@ -26,6 +36,11 @@ public class RequestLoader {
             DateTimeFormatter.ofPattern("h:mm a"),
     };
 
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+    private static volatile int lastDateFormatter;
+    private static volatile int lastTimeFormatter;
+
     public static final String FILE_NAME = "Teacher Request Form.csv";
 
     /**
@@ -39,13 +54,28 @@ public class RequestLoader {
         if (s == null) throw new IllegalArgumentException("Date is null");
 
         String cleaned = getCleaned(s);
+        LocalDate date = FormDateParser.parseDate(cleaned.toCharArray(), 0, cleaned.length());
+        if (date == null) {
+            date = tryParseDate(cleaned);
+        }
+        if (date == null) {
+            throw new IllegalArgumentException("Unsupported date format: " + s + " (cleaned=" + cleaned + ")");
+        }
+        return date;
+    }
 
-        for (DateTimeFormatter f : FORMATTERS) {
+    // Formatter chain for text the fast parser rejects, starting from the formatter that last worked
+    private static LocalDate tryParseDate(String cleaned) {
+        int first = lastDateFormatter;
+        for (int i = 0; i < FORMATTERS.length; i++) {
+            int index = (first + i) % FORMATTERS.length;
             try {
-                return LocalDate.parse(cleaned, f);
+                LocalDate date = LocalDate.parse(cleaned, FORMATTERS[index]);
+                lastDateFormatter = index;
+                return date;
             } catch (DateTimeParseException ignored) {}
         }
-        throw new IllegalArgumentException("Unsupported date format: " + s + " (cleaned=" + cleaned + ")");
+        return null;
     }
 
     private static String getCleaned(String s) {
@@ -70,13 +100,27 @@ public class RequestLoader {
      */
     public static LocalTime parseLocalTime(String s) {
         String cleaned = getCleaned(s);
-        String trimmed = cleaned.trim();
-        for (DateTimeFormatter formatter : TIME_FORMATTERS) {
+        LocalTime time = FormDateParser.parseTime(cleaned.toCharArray(), 0, cleaned.length());
+        if (time == null) {
+            time = tryParseTime(cleaned);
+        }
+        if (time == null) {
+            throw new IllegalArgumentException("Unsupported time format: " + s + " (cleaned=" + cleaned + ")");
+        }
+        return time;
+    }
+
+    private static LocalTime tryParseTime(String cleaned) {
+        int first = lastTimeFormatter;
+        for (int i = 0; i < TIME_FORMATTERS.length; i++) {
+            int index = (first + i) % TIME_FORMATTERS.length;
             try {
-                return LocalTime.parse(trimmed, formatter);
+                LocalTime time = LocalTime.parse(cleaned, TIME_FORMATTERS[index]);
+                lastTimeFormatter = index;
+                return time;
             } catch (DateTimeParseException ignored) {}
         }
-        throw new IllegalArgumentException("Unsupported time format: " + s + " (cleaned=" + cleaned + ")");
+        return null;
     }
 
     /**
@@ -97,76 +141,262 @@ public class RequestLoader {
      * @return matching requests
      */
     public static List<TeacherRequest> loadRequest(File requestFile, LocalDate loadDate) {
-        List<TeacherRequest> requests = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(requestFile))) {
-            String line;
-            boolean header = true;
-            int lineNum = 0;
+        List<TeacherRequest> requests = loadRequests(requestFile, loadDate, loadDate).get(loadDate);
+        return requests == null ? new ArrayList<>() : requests;
+    }
 
-            while ((line = br.readLine()) != null) {
-                lineNum++;
-                if (header) {
-                    header = false;
-                    continue;
-                }
+    /**
+     * Loads every request in a date range from the given CSV file in one pass, indexed by date.
+     * Rows outside the range are skipped once their date is read, as {@link #loadRequest(File, LocalDate)}
+     * skips rows for other dates.
+     *
+     * @param requestFile CSV file to read
+     * @param from first date to keep
+     * @param to last date to keep, inclusive
+     * @return requests by date in file order; dates without requests are absent
+     */
+    public static NavigableMap<LocalDate, List<TeacherRequest>> loadRequests(File requestFile, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, List<TeacherRequest>> index = new TreeMap<>();
+        readRows(requestFile, row -> {
+            if (!row.date().isBefore(from) && !row.date().isAfter(to)) {
+                index.computeIfAbsent(row.date(), d -> new ArrayList<>()).add(row.toRequest());
+            }
+        });
+        return index;
+    }
 
-                String[] fields = parseCsvLine(line);
-                if (fields.length < 6) {
-                    throw new IllegalArgumentException("CSV line " + lineNum + " has too few fields: " + fields.length);
-                }
+    /**
+     * One parsed CSV row. The type is kept as text and only checked when the row becomes a
+     * request, so an unknown type fails the dates that use it and no others.
+     *
+     * @param line line number in the file, counting the header
+     * @param teacher teacher name
+     * @param date requested date
+     * @param type cleaned request type text
+     * @param time start time
+     * @param duration request length
+     * @param reason reason text, or {@code null}
+     */
+    record RequestRow(int line, String teacher, LocalDate date, String type, LocalTime time, Duration duration, String reason) {
+        /**
+         * Builds a fresh request from this row.
+         *
+         * @return new request
+         * @throws IllegalArgumentException when the type is unknown
+         */
+        TeacherRequest toRequest() {
+            return switch (type) {
+                case "All School" -> new AllSchoolRequest(new Teacher(teacher), reason, duration, time);
+                case "Avoid" -> new AvoidTimeRequest(new Teacher(teacher), reason, duration, time);
+                default -> throw new IllegalArgumentException("Unknown type: " + type);
+            };
+        }
+    }
 
-                String teacher = getCleaned(fields[1]);
-                LocalDate date = parseDate(fields[2]);
-                String type = fields[3];
-                LocalTime time = parseLocalTime(fields[4]);
-                Duration duration = Duration.ofMinutes((long) (Double.parseDouble(getCleaned(fields[5]))*60));
-                String reason = (fields.length > 6) ? getCleaned(fields[6]) : null;
+    /**
+     * Where a read of a request CSV stopped, so a later read can continue after the rows it has
+     * seen. The CRC-32 of every byte read so far tells whether the file was only appended to
+     * since.
+     *
+     * @param end byte offset just past the last byte read
+     * @param lines lines read so far, counting the header
+     * @param terminated whether the last line read ended with a line break
+     * @param checksum CRC-32 of the bytes before {@code end}
+     */
+    record Tail(long end, int lines, boolean terminated, long checksum) {
+    }
 
-                if (!date.equals(loadDate)) {
-                    continue;
+    /**
+     * Parses every data row of a request CSV, skipping the header. Lines end at {@code \n},
+     * with an optional {@code \r} before it.
+     *
+     * @param requestFile CSV file to read
+     * @param sink receives each row in file order
+     * @return where the read stopped
+     * @throws IllegalArgumentException when a row is malformed
+     */
+    static Tail readRows(File requestFile, Consumer<RequestRow> sink) {
+        try (FileChannel channel = FileChannel.open(requestFile.toPath(), StandardOpenOption.READ)) {
+            return readFrom(channel, 0, 0, new CRC32(), sink);
+        } catch (NoSuchFileException e) {
+            throw new RuntimeException("Request file not found: " + requestFile.getAbsolutePath(), e);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Parses only the rows appended since an earlier read. The file must have grown and still
+     * begin with exactly the bytes that read covered; when the earlier read ended inside a line,
+     * the appended bytes must start by ending it. Checking the prefix reads it again, but only
+     * the new bytes are parsed.
+     *
+     * @param requestFile CSV file to read
+     * @param tail where the earlier read stopped
+     * @param sink receives each new row in file order
+     * @return where this read stopped, or {@code null} when the file must be read again in full
+     * @throws IllegalArgumentException when a new row is malformed
+     */
+    static Tail readAppended(File requestFile, Tail tail, Consumer<RequestRow> sink) {
+        try (FileChannel channel = FileChannel.open(requestFile.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() <= tail.end()) {
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            long position = 0;
+            while (position < tail.end()) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), tail.end() - position));
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    return null;
                 }
+                crc.update(buffer.array(), 0, read);
+                position += read;
+            }
+            if (crc.getValue() != tail.checksum()) {
+                return null;
+            }
 
-                TeacherRequest request;
-                switch (getCleaned(type)) {
-                    case "All School" -> {
-                        request = new AllSchoolRequest(new Teacher(teacher), reason, duration, time);
-                    }
-                    case "Avoid" -> {
-                        request = new AvoidTimeRequest(new Teacher(teacher), reason, duration, time);
-                    }
-                    default -> throw new IllegalArgumentException("Unknown type: " + type);
+            long start = tail.end();
+            if (!tail.terminated()) {
+                ByteBuffer next = ByteBuffer.allocate(2);
+                channel.read(next, start);
+                int breakLength = next.position() >= 1 && next.get(0) == '\n' ? 1
+                        : next.position() == 2 && next.get(0) == '\r' && next.get(1) == '\n' ? 2 : 0;
+                if (breakLength == 0) {
+                    return null;
                 }
-                requests.add(request);
+                crc.update(next.array(), 0, breakLength);
+                start += breakLength;
             }
-        } catch (FileNotFoundException e) {
+            return readFrom(channel, start, tail.lines(), crc, sink);
+        } catch (NoSuchFileException e) {
             throw new RuntimeException("Request file not found: " + requestFile.getAbsolutePath(), e);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        return requests;
     }
 
-    private static String[] parseCsvLine(String line) {
-        List<String> out = new ArrayList<>();
-        StringBuilder sb = new StringBuilder();
-        boolean inQuotes = false;
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            if (c == '"') {
-                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    sb.append('"');
-                    i++;
+    // Parses lines from a byte offset to the end of the file, adding every byte read to the CRC
+    private static Tail readFrom(FileChannel channel, long start, int linesBefore, CRC32 crc, Consumer<RequestRow> sink) throws IOException {
+        channel.position(start);
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        CsvTokenizer tokens = new CsvTokenizer();
+        // Holds a line that runs past the end of the buffer
+        byte[] carry = new byte[256];
+        int carried = 0;
+        int lineNum = linesBefore;
+        long position = start;
+
+        while (channel.read(buffer) > 0) {
+            byte[] bytes = buffer.array();
+            int limit = buffer.position();
+            crc.update(bytes, 0, limit);
+            int from = 0;
+            for (int i = 0; i < limit; i++) {
+                if (bytes[i] != '\n') {
+                    continue;
+                }
+                lineNum++;
+                if (carried == 0) {
+                    readLine(tokens, bytes, from, i - from, lineNum, sink);
                 } else {
-                    inQuotes = !inQuotes;
+                    carry = append(carry, carried, bytes, from, i - from);
+                    readLine(tokens, carry, 0, carried + i - from, lineNum, sink);
+                    carried = 0;
                 }
-            } else if (c == ',' && !inQuotes) {
-                out.add(sb.toString());
-                sb.setLength(0);
+                from = i + 1;
+            }
+            carry = append(carry, carried, bytes, from, limit - from);
+            carried += limit - from;
+            position += limit;
+            buffer.clear();
+        }
+
+        boolean terminated = carried == 0;
+        if (!terminated) {
+            lineNum++;
+            readLine(tokens, carry, 0, carried, lineNum, sink);
+        }
+        return new Tail(position, lineNum, terminated, crc.getValue());
+    }
+
+    // Tokenizes one line without its line break; the first line of the file is the header
+    private static void readLine(CsvTokenizer tokens, byte[] bytes, int offset, int length, int lineNum, Consumer<RequestRow> sink) {
+        if (lineNum == 1) {
+            return;
+        }
+        if (length > 0 && bytes[offset + length - 1] == '\r') {
+            length--;
+        }
+        tokens.read(bytes, offset, length);
+        sink.accept(parseRow(tokens, lineNum));
+    }
+
+    private static byte[] append(byte[] carry, int carried, byte[] bytes, int offset, int length) {
+        if (carried + length > carry.length) {
+            carry = Arrays.copyOf(carry, Math.max(carried + length, carry.length * 2));
+        }
+        System.arraycopy(bytes, offset, carry, carried, length);
+        return carry;
+    }
+
+    private static RequestRow parseRow(CsvTokenizer tokens, int lineNum) {
+        int fields = tokens.fieldCount();
+        if (fields < 6) {
+            throw new IllegalArgumentException("CSV line " + lineNum + " has too few fields: " + fields);
+        }
+
+        String teacher = tokens.string(1);
+        char[] chars = tokens.chars();
+        LocalDate date = FormDateParser.parseDate(chars, tokens.start(2), tokens.length(2));
+        if (date == null) {
+            String dateText = tokens.string(2);
+            date = tryParseDate(dateText);
+            if (date == null) {
+                throw new IllegalArgumentException("Unsupported date format: " + dateText);
+            }
+        }
+        String type = tokens.fieldEquals(3, "All School") ? "All School"
+                : tokens.fieldEquals(3, "Avoid") ? "Avoid" : tokens.string(3);
+        LocalTime time = FormDateParser.parseTime(chars, tokens.start(4), tokens.length(4));
+        if (time == null) {
+            String timeText = tokens.string(4);
+            time = tryParseTime(timeText);
+            if (time == null) {
+                throw new IllegalArgumentException("Unsupported time format: " + timeText);
+            }
+        }
+        Duration duration = Duration.ofMinutes((long) (parseHours(tokens, 5)*60));
+        String reason = (fields > 6) ? tokens.string(6) : null;
+        return new RequestRow(lineNum, teacher, date, type, time, duration, reason);
+    }
+
+    // Plain decimals are read straight from the buffer; n / 10^k is exact for up to 15 digits
+    private static double parseHours(CsvTokenizer tokens, int field) {
+        char[] chars = tokens.chars();
+        int start = tokens.start(field);
+        int end = start + tokens.length(field);
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) scale++;
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
             } else {
-                sb.append(c);
+                digits = -1;
+                break;
             }
         }
-        out.add(sb.toString());
-        return out.toArray(new String[0]);
+        if (digits < 1 || digits > 15) {
+            return Double.parseDouble(tokens.string(field));
+        }
+        return scale <= 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
     }
 }
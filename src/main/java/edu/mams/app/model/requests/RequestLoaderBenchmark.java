@@ -0,0 +1,264 @@
+package edu.mams.app.model.requests;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * Command-line benchmark comparing the request CSV tokenizers on a synthetic form export.
+ * <p>
+ * The export mixes the date and time formats the form produces, quoted names and reasons with
+ * commas, and reasons with en-dashes. The string tokenizer is the line splitter and
+ * {@code String.replace} cleaning that {@link RequestLoader} used before {@link CsvTokenizer};
+ * the tokenize pass splits and cleans lines already in memory, and the load pass reads the file
+ * and parses whole rows. The table reports the median time and the bytes allocated per row by
+ * the benchmark thread.
+ */
+public class RequestLoaderBenchmark {
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional row count (default 1000000) and seed (default 20260418)
+     */
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 20260418L;
+
+        Path csv = Files.createTempFile("request-benchmark", ".csv");
+        try {
+            writeExport(csv, rows, new Random(seed));
+            File file = csv.toFile();
+
+            System.out.println("Request CSV tokenizer benchmark");
+            System.out.println("===============================");
+            System.out.println("Rows: " + rows + ", file size: " + Files.size(csv) / (1024 * 1024) + " MB, seed: " + seed);
+            System.out.println();
+
+            byte[] bytes = Files.readAllBytes(csv);
+            List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+            int[] lineStarts = lineStarts(bytes);
+
+            System.out.printf("%-26s  %12s  %14s%n", "pass", "median (ms)", "bytes per row");
+            compare("tokenize", rows,
+                    () -> tokenizeWithStrings(lines),
+                    () -> tokenizeWithTokenizer(bytes, lineStarts));
+            compare("load file", rows,
+                    () -> readWithStrings(file),
+                    () -> readWithTokenizer(file));
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    // Warms both sides up, then times them in alternating rounds
+    private static void compare(String pass, int rows, IntSupplier strings, IntSupplier tokenizer) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            check(rows, strings.getAsInt());
+            check(rows, tokenizer.getAsInt());
+        }
+        double[] stringMillis = new double[ROUNDS];
+        double[] tokenizerMillis = new double[ROUNDS];
+        long stringBytes = 0;
+        long tokenizerBytes = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            check(rows, strings.getAsInt());
+            stringMillis[round] = (System.nanoTime() - start) / 1_000_000.0;
+            stringBytes = allocatedBytes() - allocated;
+
+            allocated = allocatedBytes();
+            start = System.nanoTime();
+            check(rows, tokenizer.getAsInt());
+            tokenizerMillis[round] = (System.nanoTime() - start) / 1_000_000.0;
+            tokenizerBytes = allocatedBytes() - allocated;
+        }
+        System.out.printf("%-26s  %12.1f  %14s%n", pass + ", string split", median(stringMillis), perRow(stringBytes, rows));
+        System.out.printf("%-26s  %12.1f  %14s%n", pass + ", CsvTokenizer", median(tokenizerMillis), perRow(tokenizerBytes, rows));
+    }
+
+    // Splits and cleans the fields a row keeps or parses, building strings only for kept ones
+    private static int tokenizeWithTokenizer(byte[] bytes, int[] lineStarts) {
+        CsvTokenizer tokens = new CsvTokenizer();
+        int count = 0;
+        for (int l = 1; l + 1 < lineStarts.length; l++) {
+            int start = lineStarts[l];
+            int length = lineStarts[l + 1] - 1 - start;
+            if (length > 0 && bytes[start + length - 1] == '\r') {
+                length--;
+            }
+            tokens.read(bytes, start, length);
+            String teacher = tokens.string(1);
+            boolean known = tokens.fieldEquals(3, "All School") || tokens.fieldEquals(3, "Avoid");
+            String reason = tokens.string(6);
+            if (!teacher.isEmpty() && known && tokens.length(2) > 0 && tokens.length(4) > 0 && reason != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int tokenizeWithStrings(List<String> lines) {
+        int count = 0;
+        for (int l = 1; l < lines.size(); l++) {
+            String[] fields = parseCsvLine(lines.get(l));
+            String teacher = getCleaned(fields[1]);
+            String date = getCleaned(fields[2]);
+            String type = getCleaned(fields[3]);
+            String time = getCleaned(fields[4]);
+            String hours = getCleaned(fields[5]);
+            String reason = getCleaned(fields[6]);
+            if (!teacher.isEmpty() && !date.isEmpty() && !type.isEmpty() && !time.isEmpty() && !hours.isEmpty() && reason != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Offsets of each line start, plus one past the final line break
+    private static int[] lineStarts(byte[] bytes) {
+        int[] starts = new int[1024];
+        int count = 1;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = i + 1;
+            }
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    private static int readWithTokenizer(File file) {
+        int[] count = new int[1];
+        RequestLoader.readRows(file, row -> count[0]++);
+        return count[0];
+    }
+
+    // The loader's row parsing as it was before CsvTokenizer
+    private static int readWithStrings(File file) {
+        int count = 0;
+        try (BufferedReader br = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line = br.readLine();
+            while ((line = br.readLine()) != null) {
+                String[] fields = parseCsvLine(line);
+                if (fields.length < 6) {
+                    throw new IllegalArgumentException("Too few fields: " + fields.length);
+                }
+                String teacher = getCleaned(fields[1]);
+                LocalDate date = RequestLoader.parseDate(fields[2]);
+                String type = getCleaned(fields[3]);
+                LocalTime time = RequestLoader.parseLocalTime(fields[4]);
+                Duration duration = Duration.ofMinutes((long) (Double.parseDouble(getCleaned(fields[5])) * 60));
+                String reason = fields.length > 6 ? getCleaned(fields[6]) : null;
+                if (teacher != null && date != null && type != null && time != null && duration != null && reason != null) {
+                    count++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private static String[] parseCsvLine(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    sb.append('"');
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (c == ',' && !inQuotes) {
+                out.add(sb.toString());
+                sb.setLength(0);
+            } else {
+                sb.append(c);
+            }
+        }
+        out.add(sb.toString());
+        return out.toArray(new String[0]);
+    }
+
+    private static String getCleaned(String s) {
+        String cleaned = s.trim();
+        if (cleaned.length() >= 2 && cleaned.startsWith("\"") && cleaned.endsWith("\"")) {
+            cleaned = cleaned.substring(1, cleaned.length() - 1).trim();
+        }
+        return cleaned.replace('\u2013', '-').replace('\u2014', '-').replace('\u2212', '-');
+    }
+
+    // Form export rows spread over a school year in the formats seen in real exports
+    private static void writeExport(Path csv, int rows, Random random) throws IOException {
+        String[] teachers = {"Durost", "Chase", "Taricco", "Crowthers", "\"Small, Ann\"", "Wildfong"};
+        String[] reasons = {"Planning", "\"Assembly, prep\"", "Field trip \u2013 museum", "\"Meeting \u2014 \"\"staff\"\"\"", "Lab setup"};
+        LocalDate first = LocalDate.of(2025, 9, 2);
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("Timestamp,Teacher,Date,Type,Time,Duration,Reason\r\n");
+            for (int i = 0; i < rows; i++) {
+                LocalDate date = first.plusDays(random.nextInt(280));
+                int hour = 7 + random.nextInt(7);
+                int minute = random.nextInt(4) * 15;
+                String dateText = switch (random.nextInt(3)) {
+                    case 0 -> date.toString();
+                    case 1 -> date.getMonthValue() + "/" + date.getDayOfMonth() + "/" + date.getYear();
+                    default -> String.format("%02d/%02d/%d", date.getMonthValue(), date.getDayOfMonth(), date.getYear());
+                };
+                String timeText = switch (random.nextInt(3)) {
+                    case 0 -> hour + ":" + String.format("%02d", minute);
+                    case 1 -> (hour > 12 ? hour - 12 : hour) + ":" + String.format("%02d", minute) + ":00 " + (hour < 12 ? "AM" : "PM");
+                    default -> (hour > 12 ? hour - 12 : hour) + ":" + String.format("%02d", minute) + " " + (hour < 12 ? "AM" : "PM");
+                };
+                out.write(date.minusDays(7) + " 08:00:00," + teachers[random.nextInt(teachers.length)] + "," + dateText + ","
+                        + (random.nextInt(4) == 0 ? "All School" : "Avoid") + "," + timeText + ","
+                        + (1 + random.nextInt(4)) * 0.5 + "," + reasons[random.nextInt(reasons.length)] + "\r\n");
+            }
+        }
+    }
+
+    private static void check(int expected, int actual) {
+        if (expected != actual) {
+            throw new IllegalStateException("Expected " + expected + " rows but read " + actual);
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static String perRow(long bytes, int rows) {
+        return bytes < 0 ? "n/a" : String.valueOf(bytes / rows);
+    }
+
+    private static double median(double[] samples) {
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,246 @@
+package edu.mams.app.model.requests;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of a request CSV that is read again only when the file changes.
+ * <p>
+ * Each access compares the file's size and modification time with the ones it was read at,
+ * and a store that is {@linkplain #watch() watching} also checks again when the directory
+ * watcher reports the file, which catches rewrites that keep both. Form exports only grow at
+ * the end, so when a changed file has grown and still starts with every byte read before,
+ * only the bytes after them are parsed; any other change, or {@link #invalidate()}, parses the
+ * whole file. Parsed rows are cached rather than requests: every call builds fresh
+ * {@link TeacherRequest} objects, so days that link or edit their requests never share them
+ * with the cache. Cached rows are never changed once published, so readers need no lock. There
+ * is one store per file, shared by every caller and safe to use from several threads.
+ */
+public final class RequestStore {
+    private static final Map<Path, RequestStore> stores = new ConcurrentHashMap<>();
+
+    private final File file;
+    private NavigableMap<LocalDate, List<RequestLoader.RequestRow>> rows;
+    private long size = -1;
+    private FileTime modified;
+    private volatile boolean stale = true;
+    private RequestLoader.Tail tail;
+    private WatchService watcher;
+    private int parses;
+    private int appends;
+
+    private RequestStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the store for a file, creating it on first use.
+     *
+     * @param requestFile request CSV
+     * @return shared store for the file
+     */
+    public static RequestStore forFile(File requestFile) {
+        Path key = requestFile.toPath().toAbsolutePath().normalize();
+        return stores.computeIfAbsent(key, path -> new RequestStore(path.toFile()));
+    }
+
+    /**
+     * Returns the store for {@link RequestLoader#FILE_NAME} in the working directory.
+     *
+     * @return default request store
+     */
+    public static RequestStore getDefault() {
+        return forFile(new File(RequestLoader.FILE_NAME));
+    }
+
+    /**
+     * Returns fresh requests for a date.
+     *
+     * @param date date to look up
+     * @return new mutable list of new requests, empty when the date has none
+     * @throws IllegalArgumentException when the file is malformed or a row for the date has an unknown type
+     */
+    public List<TeacherRequest> getRequests(LocalDate date) {
+        List<RequestLoader.RequestRow> dayRows = current().get(date);
+        List<TeacherRequest> requests = new ArrayList<>(dayRows == null ? 0 : dayRows.size());
+        if (dayRows != null) {
+            for (RequestLoader.RequestRow row : dayRows) {
+                requests.add(row.toRequest());
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Returns fresh requests for a date range, indexed by date.
+     *
+     * @param from first date
+     * @param to last date, inclusive
+     * @return new requests by date; dates without requests are absent
+     * @throws IllegalArgumentException when the file is malformed or a row in range has an unknown type
+     */
+    public NavigableMap<LocalDate, List<TeacherRequest>> getRequests(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, List<TeacherRequest>> index = new TreeMap<>();
+        for (Map.Entry<LocalDate, List<RequestLoader.RequestRow>> entry : current().subMap(from, true, to, true).entrySet()) {
+            List<TeacherRequest> requests = new ArrayList<>(entry.getValue().size());
+            for (RequestLoader.RequestRow row : entry.getValue()) {
+                requests.add(row.toRequest());
+            }
+            index.put(entry.getKey(), requests);
+        }
+        return index;
+    }
+
+    /**
+     * Forces the next access to parse the whole file again.
+     */
+    public synchronized void invalidate() {
+        stale = true;
+        tail = null;
+    }
+
+    /**
+     * Starts watching the file's directory on a daemon thread, invalidating the store whenever
+     * the file is created, modified or deleted. Does nothing if the store is already watching.
+     *
+     * @return {@code true} when the store is watching, {@code false} when the directory cannot be watched
+     */
+    public synchronized boolean watch() {
+        if (watcher != null) {
+            return true;
+        }
+        Path target = file.toPath();
+        Path directory = target.getParent();
+        WatchService service;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+        watcher = service;
+        Thread thread = new Thread(() -> pollEvents(service, target.getFileName()), "request-store-watch");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    /**
+     * Returns how many times the whole file has been parsed, for tests and diagnostics.
+     *
+     * @return full parse count
+     */
+    synchronized int getParseCount() {
+        return parses;
+    }
+
+    /**
+     * Returns how many times only appended rows were parsed, for tests and diagnostics.
+     *
+     * @return incremental read count
+     */
+    synchronized int getAppendCount() {
+        return appends;
+    }
+
+    private void pollEvents(WatchService service, Path name) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) {
+                        stale = true;
+                    }
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Store discarded; nothing left to watch
+        }
+    }
+
+    // Returns the parsed rows, parsing again when the file or the watcher says it changed
+    private synchronized NavigableMap<LocalDate, List<RequestLoader.RequestRow>> current() {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw new RuntimeException("Request file not found: " + file.getAbsolutePath(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long fileSize = attributes.size();
+        FileTime fileModified = attributes.lastModifiedTime();
+        if (rows == null || stale || fileSize != size || !fileModified.equals(modified)) {
+            // Clear first so a change during the read is seen by the next access
+            stale = false;
+            try {
+                List<RequestLoader.RequestRow> appended = new ArrayList<>();
+                RequestLoader.Tail next = tail == null ? null : RequestLoader.readAppended(file, tail, appended::add);
+                if (next == null) {
+                    NavigableMap<LocalDate, List<RequestLoader.RequestRow>> parsed = new TreeMap<>();
+                    tail = RequestLoader.readRows(file, row -> add(parsed, row));
+                    parsed.replaceAll((date, dayRows) -> List.copyOf(dayRows));
+                    rows = parsed;
+                    parses++;
+                } else {
+                    rows = withAppended(rows, appended);
+                    tail = next;
+                    appends++;
+                }
+            } catch (RuntimeException e) {
+                stale = true;
+                tail = null;
+                throw e;
+            }
+            size = fileSize;
+            modified = fileModified;
+        }
+        return rows;
+    }
+
+    private static void add(NavigableMap<LocalDate, List<RequestLoader.RequestRow>> rows, RequestLoader.RequestRow row) {
+        rows.computeIfAbsent(row.date(), d -> new ArrayList<>()).add(row);
+    }
+
+    // Copies the published rows with the appended ones added, leaving the originals untouched
+    private static NavigableMap<LocalDate, List<RequestLoader.RequestRow>> withAppended(
+            NavigableMap<LocalDate, List<RequestLoader.RequestRow>> rows, List<RequestLoader.RequestRow> appended) {
+        if (appended.isEmpty()) {
+            return rows;
+        }
+        NavigableMap<LocalDate, List<RequestLoader.RequestRow>> added = new TreeMap<>();
+        appended.forEach(row -> add(added, row));
+        NavigableMap<LocalDate, List<RequestLoader.RequestRow>> copy = new TreeMap<>(rows);
+        added.forEach((date, newRows) -> {
+            List<RequestLoader.RequestRow> dayRows = new ArrayList<>(copy.getOrDefault(date, List.of()));
+            dayRows.addAll(newRows);
+            copy.put(date, List.copyOf(dayRows));
+        });
+        return copy;
+    }
+}
@@ -5,7 +5,10 @@ import edu.mams.app.model.people.HalfSection;
 import edu.mams.app.model.people.Section;
 import edu.mams.app.model.requests.AllSchoolRequest;
 import edu.mams.app.model.requests.RequestLoader;
+import edu.mams.app.model.requests.RequestStore;
 import edu.mams.app.model.requests.TeacherRequest;
+import edu.mams.app.model.util.BuilderConfig;
+import edu.mams.app.model.util.GenerationContext;
 import edu.mams.app.model.util.ScheduleBuilder;
 
 import java.io.File;
@@ -57,12 +60,31 @@ public class Day {
      * @param templateName the name of the schedule template to use for generating blocks.
      */
     public void generateBlocks(String templateName) {
+        generateBlocks(templateName, GenerationContext.defaults());
+    }
+
+    /**
+     * Generates the day's blocks from a template, drawing every random choice from the
+     * given context so a seeded context reproduces the same entries.
+     *
+     * @param templateName the name of the schedule template to use for generating blocks.
+     * @param context randomness and solver for this generation
+     */
+    public void generateBlocks(String templateName, GenerationContext context) {
+        generateBlocks(templateName, context, ScheduleBuilder.getConfig());
+    }
+
+    /**
+     * Generates the day's blocks from a template using an explicit builder configuration
+     * instead of the process-wide one.
+     *
+     * @param templateName the name of the schedule template to use for generating blocks.
+     * @param context randomness and solver for this generation
+     * @param config split-course and PE settings
+     */
+    public void generateBlocks(String templateName, GenerationContext context, BuilderConfig config) {
         this.template = templateName;
-        if (split) {
-            entries = ScheduleBuilder.buildNewSplitSchedule(templateName, this);
-        } else {
-            entries = ScheduleBuilder.buildNewNoSplitSchedule(templateName, this);
-        }
+        entries = new ScheduleBuilder(config).generate(templateName, this, context);
     }
 
     public List<Assignment> getClasses() {
@@ -234,8 +256,8 @@ public class Day {
      * Loads teacher requests for a specific date and processes them according to their type.
      * <p>
      * This method performs the following logic:
-     * 1. Calls {@link RequestLoader#loadRequests(LocalDate)} to load teacher requests
-     * matching the current instance's date.
+     * 1. Reads the teacher requests matching the current instance's date from the
+     * {@link RequestStore} of the default request file, which only re-parses it after it changes.
      * 2. Iterates through the loaded requests, invoking the {@link TeacherRequest#setAssignmentFromList(List)}
      * method for each request to assign corresponding assignments from the `classes` list.
      * The method updates the `requests` field with the list of loaded requests and modifies the
@@ -255,10 +277,18 @@ public class Day {
     }
 
     public void loadRequests(File requestFile) {
-        List<TeacherRequest> loaded = RequestLoader.loadRequest(requestFile, date);
+        addRequests(RequestStore.forFile(requestFile).getRequests(date));
+    }
 
+    /**
+     * Merges already loaded requests into this day and links them to its classes, as
+     * {@link #loadRequests(File)} does for requests read from a file.
+     *
+     * @param loaded requests for this day's date
+     */
+    public void addRequests(List<TeacherRequest> loaded) {
         if (requests == null) {
-            requests = loaded;
+            requests = new ArrayList<>(loaded);
         } else {
             Set<TeacherRequest> merged = new LinkedHashSet<>(requests);
             merged.addAll(loaded);
@@ -0,0 +1,133 @@
+package edu.mams.app.model.schedule;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, pre-compiled form of a {@link DayTemplate}.
+ * <p>
+ * Each block definition is classified once into a typed slot with its start and end as
+ * minute-of-day offsets, and class slots are numbered in order, so expanding a template only
+ * has to copy the slots into fresh entries. {@link TemplateManager} compiles each template on
+ * first use and drops the layout when the template is added or removed.
+ */
+public final class TemplateLayout {
+    /**
+     * What kind of entry a slot expands into.
+     */
+    public enum SlotType {
+        /** A class block filled by the solver. */
+        CLASS,
+        /** A PE block with the builder's default groups and activities. */
+        PE,
+        /** An all-school event named by the slot label. */
+        EVENT
+    }
+
+    /**
+     * One compiled block of the template.
+     *
+     * @param type entry kind
+     * @param start start time
+     * @param length block length
+     * @param startMinute start as minutes since midnight
+     * @param endMinute end as minutes since midnight
+     * @param label block label, or {@code null}
+     */
+    public record Slot(SlotType type, LocalTime start, Duration length, int startMinute, int endMinute, String label) {
+    }
+
+    private final DayTemplate source;
+    private final List<Slot> slots;
+    private final int[] classSlots;
+
+    private TemplateLayout(DayTemplate source, List<Slot> slots, int[] classSlots) {
+        this.source = source;
+        this.slots = slots;
+        this.classSlots = classSlots;
+    }
+
+    /**
+     * Compiles a template. Definitions of unknown types are left out, as expansion always
+     * ignored them.
+     *
+     * @param template template to compile
+     * @return compiled layout
+     */
+    public static TemplateLayout compile(DayTemplate template) {
+        List<Slot> slots = new ArrayList<>();
+        int[] classSlots = new int[template.getBlocks() == null ? 0 : template.getBlocks().size()];
+        int classCount = 0;
+        for (BlockDefinition def : template.getBlocks() == null ? List.<BlockDefinition>of() : template.getBlocks()) {
+            SlotType type = switch (def.getType()) {
+                case "ClassBlock" -> SlotType.CLASS;
+                case "PEBlock" -> SlotType.PE;
+                case "AllSchoolEvent" -> isPEDefinition(def) ? SlotType.PE : SlotType.EVENT;
+                default -> null;
+            };
+            if (type == null) {
+                continue;
+            }
+            int startMinute = def.getStart().toSecondOfDay() / 60;
+            int endMinute = startMinute + (def.getLength() == null ? 0 : (int) def.getLength().toMinutes());
+            if (type == SlotType.CLASS) {
+                classSlots[classCount++] = slots.size();
+            }
+            slots.add(new Slot(type, def.getStart(), def.getLength(), startMinute, endMinute, def.getLabel()));
+        }
+        return new TemplateLayout(template, List.copyOf(slots), Arrays.copyOf(classSlots, classCount));
+    }
+
+    private static boolean isPEDefinition(BlockDefinition def) {
+        return def.getLabel() != null && "PE".equalsIgnoreCase(def.getLabel().trim());
+    }
+
+    /**
+     * Returns the template this layout was compiled from.
+     *
+     * @return source template
+     */
+    public DayTemplate getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the template name.
+     *
+     * @return template name
+     */
+    public String getName() {
+        return source.getName();
+    }
+
+    /**
+     * Returns the compiled slots in schedule order.
+     *
+     * @return unmodifiable slot list
+     */
+    public List<Slot> getSlots() {
+        return slots;
+    }
+
+    /**
+     * Returns the number of class slots.
+     *
+     * @return class block count
+     */
+    public int getClassBlockCount() {
+        return classSlots.length;
+    }
+
+    /**
+     * Returns the slot position of a class block.
+     *
+     * @param classIndex class block number, from 0
+     * @return index into {@link #getSlots()}
+     */
+    public int getClassSlot(int classIndex) {
+        return classSlots[classIndex];
+    }
+}
@@ -3,12 +3,17 @@ package edu.mams.app.model.schedule;
 import java.time.Duration;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Registry for named day templates, including built-in defaults.
+ * Registry for named day templates, including built-in defaults. The registry is safe to read
+ * and update from several threads, so background generation can look templates up while the
+ * editor adds or removes them. Compiled layouts are cached per template and dropped whenever
+ * the template is added or removed.
  */
 public class TemplateManager {
-    private static Map<String, DayTemplate> templates = new HashMap<>();
+    private static final Map<String, DayTemplate> templates = new ConcurrentHashMap<>();
+    private static final Map<String, TemplateLayout> layouts = new ConcurrentHashMap<>();
 
     static {
         loadDefaultTemplates();
@@ -21,6 +26,7 @@ public class TemplateManager {
      */
     public static void addTemplate(DayTemplate template) {
         templates.put(template.getName(), template);
+        layouts.remove(template.getName());
     }
 
     /**
@@ -40,6 +46,27 @@ public class TemplateManager {
      */
     public static void removeTemplate(String name) {
         templates.remove(name);
+        layouts.remove(name);
+    }
+
+    /**
+     * Returns the compiled layout of a template, compiling it on first use. A cached layout
+     * is only returned while it still belongs to the registered template.
+     *
+     * @param name template name
+     * @return compiled layout or {@code null}
+     */
+    public static TemplateLayout getLayout(String name) {
+        DayTemplate template = templates.get(name);
+        if (template == null) {
+            return null;
+        }
+        TemplateLayout layout = layouts.get(name);
+        if (layout == null || layout.getSource() != template) {
+            layout = TemplateLayout.compile(template);
+            layouts.put(name, layout);
+        }
+        return layout;
     }
 
     /**
@@ -1,12 +1,20 @@
 package edu.mams.app.model.schedule;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import edu.mams.app.model.requests.RequestLoader;
+import edu.mams.app.model.requests.RequestStore;
+import edu.mams.app.model.requests.TeacherRequest;
+import edu.mams.app.model.util.BuilderConfig;
+import edu.mams.app.model.util.GenerationContext;
+import edu.mams.app.model.util.ScheduleBuilder;
+import edu.mams.app.model.util.WeekSolver;
 
 import java.io.File;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.NavigableMap;
 
 /**
  * Represents one school week and its five scheduled days.
@@ -129,19 +137,30 @@ public class Week {
      * Loads requests for every day from the default request file.
      */
     public void loadRequests() {
-        for (Day day : days) {
-            day.loadRequests();
-        }
+        loadRequests(new File(RequestLoader.FILE_NAME));
     }
 
     /**
-     * Loads requests for every day from the provided request file.
+     * Loads requests for every day from the provided request file through its
+     * {@link RequestStore}, so the file is only parsed again after it changes.
      *
      * @param requestFile source CSV file
      */
     public void loadRequests(File requestFile) {
+        if (days.isEmpty()) {
+            return;
+        }
+        loadRequests(RequestStore.forFile(requestFile).getRequests(getStartingDate(), getEndingDate()));
+    }
+
+    /**
+     * Gives every day its requests from a date index, such as one loaded once for a whole term.
+     *
+     * @param requestsByDate requests by date; dates without an entry get none
+     */
+    public void loadRequests(NavigableMap<LocalDate, List<TeacherRequest>> requestsByDate) {
         for (Day day : days) {
-            day.loadRequests(requestFile);
+            day.addRequests(requestsByDate.getOrDefault(day.getDate(), List.of()));
         }
     }
 
@@ -149,7 +168,16 @@ public class Week {
      * Generates day blocks using the default weekly template sequence.
      */
     public void generateBlocks() {
-        generateBlocks(new ArrayList<String>(Arrays.asList("Class Meeting Day", "Homeroom Day", "Flex Day", "PE Day", "Homeroom Day")));
+        generateBlocks(GenerationContext.defaults());
+    }
+
+    /**
+     * Generates day blocks using the default weekly template sequence and the given context.
+     *
+     * @param context randomness and solver for this generation
+     */
+    public void generateBlocks(GenerationContext context) {
+        generateBlocks(new ArrayList<String>(Arrays.asList("Class Meeting Day", "Homeroom Day", "Flex Day", "PE Day", "Homeroom Day")), context);
     }
 
     /**
@@ -158,11 +186,45 @@ public class Week {
      * @param templates day template names in week order
      */
     public void generateBlocks(List<String> templates) {
+        generateBlocks(templates, GenerationContext.defaults());
+    }
+
+    /**
+     * Generates day blocks using one template name per day. Each day receives its own split
+     * of the context, so a seeded context reproduces the whole week.
+     *
+     * @param templates day template names in week order
+     * @param context randomness and solver for this generation
+     */
+    public void generateBlocks(List<String> templates, GenerationContext context) {
+        generateBlocks(templates, context, ScheduleBuilder.getConfig());
+    }
+
+    /**
+     * Generates day blocks using one template name per day and an explicit builder
+     * configuration, so weeks with different settings can be generated side by side.
+     *
+     * @param templates day template names in week order
+     * @param context randomness and solver for this generation
+     * @param config split-course and PE settings
+     */
+    public void generateBlocks(List<String> templates, GenerationContext context, BuilderConfig config) {
         for (int d = 0; d < days.size(); d++) {
-            days.get(d).generateBlocks(templates.get(d));
+            days.get(d).generateBlocks(templates.get(d), context.split(), config);
         }
     }
 
+    /**
+     * Generates all days together so the solver's cross-day constraints hold across the week.
+     *
+     * @param templates day template names in week order
+     * @param context randomness for this generation
+     * @param solver week-scope solver and its cross-day constraints
+     */
+    public void generateBlocks(List<String> templates, GenerationContext context, WeekSolver solver) {
+        solver.generate(this, templates, context);
+    }
+
     /**
      * Returns a detached copy of this week and its days.
      *
@@ -0,0 +1,149 @@
+package edu.mams.app.model.util;
+
+import java.util.Arrays;
+
+/**
+ * Hopcroft–Karp maximum matching on a bipartite graph given as adjacency lists.
+ * <p>
+ * Left vertices are {@code 0..left-1} and right vertices are {@code 0..right-1}. The order of
+ * each adjacency list is the order augmenting paths try edges in, so callers that want varied
+ * matchings can shuffle the lists before building the matcher.
+ */
+final class BipartiteMatcher {
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final int left;
+    private final int[][] adj;
+    private final int[] matchLeft;
+    private final int[] matchRight;
+    private final int[] dist;
+    private final int[] queue;
+    private final int[] nextEdge;
+
+    /**
+     * Creates a matcher.
+     *
+     * @param right number of right vertices
+     * @param adj adjacency list per left vertex
+     */
+    BipartiteMatcher(int right, int[][] adj) {
+        this.left = adj.length;
+        this.adj = adj;
+        this.matchLeft = new int[left];
+        this.matchRight = new int[right];
+        this.dist = new int[left];
+        this.queue = new int[left];
+        this.nextEdge = new int[left];
+        Arrays.fill(matchLeft, -1);
+        Arrays.fill(matchRight, -1);
+    }
+
+    /**
+     * Computes a maximum matching.
+     *
+     * @return number of matched pairs
+     */
+    int maxMatching() {
+        int size = 0;
+        while (bfs()) {
+            Arrays.fill(nextEdge, 0);
+            for (int u = 0; u < left; u++) {
+                if (matchLeft[u] == -1 && dfs(u)) size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the right vertex matched to a left vertex.
+     *
+     * @param u left vertex
+     * @return matched right vertex, or -1
+     */
+    int matchOfLeft(int u) {
+        return matchLeft[u];
+    }
+
+    /**
+     * After {@link #maxMatching()}, returns the left vertices reachable from an unmatched left
+     * vertex along alternating paths. When the matching is not left-perfect this set is a
+     * Hall violator: by König's theorem its neighbourhood is exactly the right vertices
+     * reached, each matched back into the set, so it has fewer neighbours than members.
+     *
+     * @return reachable left vertices in ascending order, empty when every left vertex is matched
+     */
+    int[] deficientLeft() {
+        boolean[] seen = new boolean[left];
+        int head = 0;
+        int tail = 0;
+        for (int u = 0; u < left; u++) {
+            if (matchLeft[u] == -1) {
+                seen[u] = true;
+                queue[tail++] = u;
+            }
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            for (int v : adj[u]) {
+                int w = matchRight[v];
+                if (w != -1 && !seen[w]) {
+                    seen[w] = true;
+                    queue[tail++] = w;
+                }
+            }
+        }
+
+        int[] out = new int[tail];
+        int count = 0;
+        for (int u = 0; u < left; u++) {
+            if (seen[u]) out[count++] = u;
+        }
+        return out;
+    }
+
+    // Layers left vertices by alternating distance from the free ones
+    private boolean bfs() {
+        int head = 0;
+        int tail = 0;
+        for (int u = 0; u < left; u++) {
+            if (matchLeft[u] == -1) {
+                dist[u] = 0;
+                queue[tail++] = u;
+            } else {
+                dist[u] = INF;
+            }
+        }
+
+        boolean found = false;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int v : adj[u]) {
+                int w = matchRight[v];
+                if (w == -1) {
+                    found = true;
+                } else if (dist[w] == INF) {
+                    dist[w] = dist[u] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return found;
+    }
+
+    // Augments along the layered graph, skipping edges already ruled out this phase
+    private boolean dfs(int u) {
+        int[] edges = adj[u];
+        for (; nextEdge[u] < edges.length; nextEdge[u]++) {
+            int v = edges[nextEdge[u]];
+            int w = matchRight[v];
+            if (w == -1 || (dist[w] == dist[u] + 1 && dfs(w))) {
+                matchLeft[u] = v;
+                matchRight[v] = u;
+                nextEdge[u]++;
+                return true;
+            }
+        }
+        dist[u] = INF;
+        return false;
+    }
+}
@@ -0,0 +1,189 @@
+package edu.mams.app.model.util;
+
+import edu.mams.app.model.schedule.ScheduleEntry;
+import edu.mams.app.model.schedule.TemplateLayout;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Sorted index of a day's blocks as minute-of-day intervals.
+ * <p>
+ * Blocks are kept in start order next to a running maximum of their end minutes, so both
+ * query kinds are two binary searches: blocks overlapping a time range lie between the first
+ * block whose running end passes the range start and the last block starting before the range
+ * end, and the block nearest a start time is one of the two neighbours of its insertion point.
+ * Each block carries the id the caller numbered it with. Blocks can be removed as a day's
+ * entries are replaced; removed blocks are skipped without rebuilding the index.
+ */
+final class BlockIndex {
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] maxEnds;
+    private final int[] ids;
+    private final int[] positionOfId;
+    private final boolean[] removed;
+
+    private BlockIndex(int[] starts, int[] ends, int[] ids) {
+        int n = starts.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> starts[a] != starts[b] ? Integer.compare(starts[a], starts[b]) : Integer.compare(ids[a], ids[b]));
+
+        this.starts = new int[n];
+        this.ends = new int[n];
+        this.maxEnds = new int[n];
+        this.ids = new int[n];
+        int maxId = -1;
+        for (int i = 0; i < n; i++) {
+            this.starts[i] = starts[order[i]];
+            this.ends[i] = ends[order[i]];
+            this.ids[i] = ids[order[i]];
+            this.maxEnds[i] = i == 0 ? this.ends[i] : Math.max(this.maxEnds[i - 1], this.ends[i]);
+            maxId = Math.max(maxId, this.ids[i]);
+        }
+        this.positionOfId = new int[maxId + 1];
+        Arrays.fill(positionOfId, -1);
+        for (int i = 0; i < n; i++) positionOfId[this.ids[i]] = i;
+        this.removed = new boolean[n];
+    }
+
+    /**
+     * Indexes the entries that pass a filter, numbering each by its position in the list.
+     *
+     * @param entries day entries
+     * @param filter entries to index
+     * @return index over the matching entries
+     */
+    static BlockIndex of(List<? extends ScheduleEntry> entries, Predicate<? super ScheduleEntry> filter) {
+        int[] starts = new int[entries.size()];
+        int[] ends = new int[entries.size()];
+        int[] ids = new int[entries.size()];
+        int count = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            ScheduleEntry entry = entries.get(i);
+            if (!filter.test(entry)) continue;
+            starts[count] = minuteOf(entry.getStart());
+            ends[count] = starts[count] + minutesOf(entry.getLength());
+            ids[count++] = i;
+        }
+        return new BlockIndex(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count), Arrays.copyOf(ids, count));
+    }
+
+    /**
+     * Indexes a template's class slots from their compiled minute offsets, numbering each by
+     * its slot position, which is also its position in the expanded entries.
+     *
+     * @param layout compiled template
+     * @return index over the class slots
+     */
+    static BlockIndex ofClassSlots(TemplateLayout layout) {
+        int count = layout.getClassBlockCount();
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = layout.getClassSlot(i);
+            TemplateLayout.Slot slot = layout.getSlots().get(ids[i]);
+            starts[i] = slot.startMinute();
+            ends[i] = slot.endMinute();
+        }
+        return new BlockIndex(starts, ends, ids);
+    }
+
+    /**
+     * Returns a time as minutes since midnight.
+     *
+     * @param time time of day
+     * @return minute of day
+     */
+    static int minuteOf(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+
+    /**
+     * Returns a length in whole minutes, treating {@code null} as empty.
+     *
+     * @param length duration
+     * @return minutes
+     */
+    static int minutesOf(Duration length) {
+        return length == null ? 0 : (int) length.toMinutes();
+    }
+
+    /**
+     * Passes the id of every block overlapping a half-open minute range.
+     *
+     * @param start first minute of the range
+     * @param end minute just past the range
+     * @param action receives each overlapping block id, in start order
+     */
+    void forEachOverlap(int start, int end, IntConsumer action) {
+        // First block whose running end passes the start; every earlier block ends by it
+        int lo = 0;
+        int hi = maxEnds.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (maxEnds[mid] > start) hi = mid;
+            else lo = mid + 1;
+        }
+        int last = lowerBound(end);
+        for (int i = lo; i < last; i++) {
+            if (!removed[i] && ends[i] > start) action.accept(ids[i]);
+        }
+    }
+
+    /**
+     * Returns the id of the block whose start is nearest a time. Ties go to the earlier block.
+     *
+     * @param minute target minute of day
+     * @return nearest block id, or -1 when no block remains
+     */
+    int nearestStart(int minute) {
+        int after = lowerBound(minute);
+        while (after < starts.length && removed[after]) after++;
+        int before = after - 1;
+        while (before >= 0 && removed[before]) before--;
+        if (before >= 0) {
+            // Earliest remaining block sharing the start, matching a scan in list order
+            int first = before;
+            for (int i = lowerBound(starts[before]); i < before; i++) {
+                if (!removed[i]) {
+                    first = i;
+                    break;
+                }
+            }
+            before = first;
+        }
+        if (before < 0) return after < starts.length ? ids[after] : -1;
+        if (after >= starts.length) return ids[before];
+        return minute - starts[before] <= starts[after] - minute ? ids[before] : ids[after];
+    }
+
+    /**
+     * Drops a block from later queries.
+     *
+     * @param id block id
+     */
+    void remove(int id) {
+        if (id >= 0 && id < positionOfId.length && positionOfId[id] >= 0) {
+            removed[positionOfId[id]] = true;
+        }
+    }
+
+    // First position whose start is at least the minute
+    private int lowerBound(int minute) {
+        int lo = 0;
+        int hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < minute) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
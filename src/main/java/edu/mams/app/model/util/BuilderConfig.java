@@ -0,0 +1,100 @@
+package edu.mams.app.model.util;
+
+import edu.mams.app.model.people.HalfSection;
+import edu.mams.app.model.people.Section;
+import edu.mams.app.model.schedule.Course;
+
+import java.util.List;
+
+/**
+ * Immutable settings for one {@link ScheduleBuilder}: the split-course pairing and the PE
+ * defaults. Each {@code with...} method returns an updated copy, so a configuration can be
+ * shared freely between threads generating different weeks or what-if variants.
+ *
+ * @param splitClass primary split course, or {@code null} when none is configured
+ * @param splitSection section configured for split-course behavior, or {@code null}
+ * @param halfSections half-section pairing used for split courses
+ * @param peGroupAName PE group A display name
+ * @param peGroupBName PE group B display name
+ * @param peActivityOne activity used on non-swap weeks
+ * @param peActivityTwo activity used on swap weeks
+ */
+public record BuilderConfig(Course splitClass, Section splitSection, List<HalfSection> halfSections,
+                            String peGroupAName, String peGroupBName, String peActivityOne, String peActivityTwo) {
+
+    /**
+     * Creates a configuration, copying the half-section list.
+     */
+    public BuilderConfig {
+        halfSections = halfSections == null ? List.of() : List.copyOf(halfSections);
+    }
+
+    /**
+     * Returns the built-in defaults.
+     *
+     * @return default configuration
+     */
+    public static BuilderConfig defaults() {
+        return new BuilderConfig(
+                null,
+                null,
+                List.of(new HalfSection("Intermediate", new Section("G")), new HalfSection("Advanced", new Section("G"))),
+                "Group A",
+                "Group B",
+                "Gym",
+                "Zumba"
+        );
+    }
+
+    /**
+     * Returns a copy with another primary split course.
+     *
+     * @param splitClass split course
+     * @return updated configuration
+     */
+    public BuilderConfig withSplitClass(Course splitClass) {
+        return new BuilderConfig(splitClass, splitSection, halfSections, peGroupAName, peGroupBName, peActivityOne, peActivityTwo);
+    }
+
+    /**
+     * Returns a copy with another split section.
+     *
+     * @param splitSection split section
+     * @return updated configuration
+     */
+    public BuilderConfig withSplitSection(Section splitSection) {
+        return new BuilderConfig(splitClass, splitSection, halfSections, peGroupAName, peGroupBName, peActivityOne, peActivityTwo);
+    }
+
+    /**
+     * Returns a copy with another half-section pairing.
+     *
+     * @param halfSections half-section definitions
+     * @return updated configuration
+     */
+    public BuilderConfig withHalfSections(List<HalfSection> halfSections) {
+        return new BuilderConfig(splitClass, splitSection, halfSections, peGroupAName, peGroupBName, peActivityOne, peActivityTwo);
+    }
+
+    /**
+     * Returns a copy with updated PE labels. Blank or {@code null} values keep the current
+     * label, and the rest are trimmed.
+     *
+     * @param groupAName group A name
+     * @param groupBName group B name
+     * @param activityOne activity used on non-swap weeks
+     * @param activityTwo activity used on swap weeks
+     * @return updated configuration
+     */
+    public BuilderConfig withPeDefaults(String groupAName, String groupBName, String activityOne, String activityTwo) {
+        return new BuilderConfig(splitClass, splitSection, halfSections,
+                orCurrent(groupAName, peGroupAName),
+                orCurrent(groupBName, peGroupBName),
+                orCurrent(activityOne, peActivityOne),
+                orCurrent(activityTwo, peActivityTwo));
+    }
+
+    private static String orCurrent(String value, String current) {
+        return value != null && !value.isBlank() ? value.trim() : current;
+    }
+}
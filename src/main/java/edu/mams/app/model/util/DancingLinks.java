@@ -0,0 +1,260 @@
+package edu.mams.app.model.util;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Array-backed Dancing Links structure running Knuth's Algorithm X.
+ * <p>
+ * Primary columns must be covered exactly once; secondary columns may be covered at most once.
+ * Nodes live in parallel int arrays rather than objects, so building and searching a matrix
+ * allocates only a handful of arrays.
+ */
+final class DancingLinks {
+    private static final int ROOT = 0;
+
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] optionOf;
+    private final int[] size;
+    private final int headers;
+    private int nodeCount;
+    private int optionCount;
+
+    private int[] solution;
+    private int solutionSize;
+
+    /**
+     * Creates an empty matrix.
+     *
+     * @param primary number of primary columns, ids {@code 0..primary-1}
+     * @param secondary number of secondary columns, ids following the primary ones
+     * @param maxNodes upper bound on option nodes that will be added
+     */
+    DancingLinks(int primary, int secondary, int maxNodes) {
+        headers = primary + secondary + 1;
+        int capacity = headers + maxNodes;
+        left = new int[capacity];
+        right = new int[capacity];
+        up = new int[capacity];
+        down = new int[capacity];
+        column = new int[capacity];
+        optionOf = new int[capacity];
+        size = new int[headers];
+
+        for (int h = 0; h < headers; h++) {
+            up[h] = h;
+            down[h] = h;
+            column[h] = h;
+            left[h] = h;
+            right[h] = h;
+        }
+        // Only the primary headers join the root ring
+        for (int h = 1; h <= primary; h++) {
+            left[h] = h - 1;
+            right[h - 1] = h;
+        }
+        left[ROOT] = primary;
+        right[primary] = ROOT;
+        nodeCount = headers;
+    }
+
+    /**
+     * Appends an option covering the given columns.
+     *
+     * @param columns column ids
+     * @return option id
+     */
+    int addOption(int... columns) {
+        int option = optionCount++;
+        int first = -1;
+        for (int c : columns) {
+            int header = c + 1;
+            int node = nodeCount++;
+            column[node] = header;
+            optionOf[node] = option;
+
+            up[node] = up[header];
+            down[node] = header;
+            down[up[header]] = node;
+            up[header] = node;
+            size[header]++;
+
+            if (first == -1) {
+                first = node;
+                left[node] = node;
+                right[node] = node;
+            } else {
+                left[node] = left[first];
+                right[node] = first;
+                right[left[first]] = node;
+                left[first] = node;
+            }
+        }
+        return option;
+    }
+
+    /**
+     * Searches for an exact cover of the primary columns.
+     *
+     * @return chosen option ids, or {@code null} when none exists
+     */
+    int[] solve() {
+        solution = new int[headers];
+        solutionSize = 0;
+        return search() ? Arrays.copyOf(solution, solutionSize) : null;
+    }
+
+    private boolean search() {
+        if (right[ROOT] == ROOT) return true;
+
+        // Choose the primary column with the fewest remaining options
+        int best = right[ROOT];
+        for (int h = right[best]; h != ROOT; h = right[h]) {
+            if (size[h] < size[best]) best = h;
+        }
+        if (size[best] == 0) return false;
+
+        cover(best);
+        for (int r = down[best]; r != best; r = down[r]) {
+            solution[solutionSize++] = optionOf[r];
+            for (int j = right[r]; j != r; j = right[j]) cover(column[j]);
+
+            if (search()) return true;
+
+            for (int j = left[r]; j != r; j = left[j]) uncover(column[j]);
+            solutionSize--;
+        }
+        uncover(best);
+        return false;
+    }
+
+    private void cover(int c) {
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                up[down[j]] = up[j];
+                down[up[j]] = down[j];
+                size[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                size[column[j]]++;
+                up[down[j]] = j;
+                down[up[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+
+    // ===== Latin encoding =====
+
+    /**
+     * Completes a validated partial Latin grid through an exact-cover encoding.
+     * <p>
+     * Every empty cell, and every value missing from a column, is a primary constraint. Values
+     * missing from a row are primary when the grid is square and secondary otherwise, because
+     * rows of a rectangle only need distinct values. An option places one allowed value in one
+     * empty cell. Option order is shuffled so repeated calls give varied completions.
+     *
+     * @param grid n×cols grid using -1 for empty cells; holds the completion on success
+     * @param forbidden optional n×n row/value matrix
+     * @param rnd source used to shuffle option order
+     * @return {@code true} when completed
+     */
+    static boolean completeLatin(int[][] grid, boolean[][] forbidden, RandomGenerator rnd) {
+        int n = grid.length;
+        int cols = grid[0].length;
+        boolean square = cols == n;
+
+        boolean[][] rowHas = new boolean[n][n];
+        boolean[][] colHas = new boolean[cols][n];
+        int emptyCells = 0;
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < cols; c++) {
+                int v = grid[r][c];
+                if (v == -1) {
+                    emptyCells++;
+                } else {
+                    rowHas[r][v] = true;
+                    colHas[c][v] = true;
+                }
+            }
+        }
+
+        int[] cellId = new int[n * cols];
+        int[] colValueId = new int[cols * n];
+        int[] rowValueId = new int[n * n];
+        int primary = 0;
+        for (int cell = 0; cell < n * cols; cell++) {
+            cellId[cell] = grid[cell / cols][cell % cols] == -1 ? primary++ : -1;
+        }
+        for (int c = 0; c < cols; c++) {
+            for (int v = 0; v < n; v++) {
+                colValueId[c * n + v] = colHas[c][v] ? -1 : primary++;
+            }
+        }
+        int secondary = 0;
+        for (int r = 0; r < n; r++) {
+            for (int v = 0; v < n; v++) {
+                if (rowHas[r][v]) {
+                    rowValueId[r * n + v] = -1;
+                } else if (square) {
+                    rowValueId[r * n + v] = primary++;
+                } else {
+                    rowValueId[r * n + v] = -2 - secondary++;
+                }
+            }
+        }
+        // Secondary ids follow the primary block
+        for (int i = 0; i < rowValueId.length; i++) {
+            if (rowValueId[i] <= -2) rowValueId[i] = primary + (-2 - rowValueId[i]);
+        }
+
+        DancingLinks dlx = new DancingLinks(primary, secondary, emptyCells * n * 3);
+        int[] optionCell = new int[emptyCells * n];
+        int[] optionValue = new int[emptyCells * n];
+        int[] cellOrder = new int[n * cols];
+        int[] values = new int[n];
+        for (int i = 0; i < cellOrder.length; i++) cellOrder[i] = i;
+        for (int i = 0; i < n; i++) values[i] = i;
+        shuffle(cellOrder, rnd);
+
+        for (int cell : cellOrder) {
+            int r = cell / cols;
+            int c = cell % cols;
+            if (cellId[cell] == -1) continue;
+            shuffle(values, rnd);
+            for (int v : values) {
+                if (rowHas[r][v] || colHas[c][v] || (forbidden != null && forbidden[r][v])) continue;
+                int option = dlx.addOption(cellId[cell], colValueId[c * n + v], rowValueId[r * n + v]);
+                optionCell[option] = cell;
+                optionValue[option] = v;
+            }
+        }
+
+        int[] chosen = dlx.solve();
+        if (chosen == null) return false;
+        for (int option : chosen) {
+            int cell = optionCell[option];
+            grid[cell / cols][cell % cols] = optionValue[option];
+        }
+        return true;
+    }
+
+    private static void shuffle(int[] a, RandomGenerator rnd) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = a[i]; a[i] = a[j]; a[j] = t;
+        }
+    }
+}
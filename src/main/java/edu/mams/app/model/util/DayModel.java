@@ -0,0 +1,132 @@
+package edu.mams.app.model.util;
+
+import edu.mams.app.model.people.Section;
+import edu.mams.app.model.schedule.Assignment;
+import edu.mams.app.model.schedule.ClassBlock;
+import edu.mams.app.model.schedule.ScheduleEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A day compiled to dense integer ids for the solvers.
+ * <p>
+ * Classes, sections and class blocks are numbered once, in list order, when the model is
+ * built, and the blocks are indexed by time. Request matching, partial grids and split
+ * layouts then work on those ids and plain arrays, and {@link #materialize(int[][])} is the
+ * one step that turns a solved grid back into {@link ClassBlock} maps. A class listed twice
+ * keeps the id of its first occurrence, as {@link List#indexOf(Object)} would.
+ */
+final class DayModel {
+    private final List<ScheduleEntry> entries;
+    private final List<Section> sections;
+    private final List<Assignment> classes;
+    private final Section[] sectionById;
+    private final Assignment[] classById;
+    private final ClassBlock[] blocks;
+    private final BlockIndex blockIndex;
+    private final Map<Assignment, Integer> classIds;
+
+    /**
+     * Compiles a day.
+     *
+     * @param entries schedule entries, whose class blocks become the grid rows
+     * @param sections sections, one per grid column
+     * @param classes classes, one per grid value
+     */
+    DayModel(List<ScheduleEntry> entries, List<Section> sections, List<Assignment> classes) {
+        this.entries = entries == null ? new ArrayList<>() : entries;
+        this.sections = sections == null ? List.of() : sections;
+        this.classes = classes == null ? List.of() : classes;
+        this.sectionById = this.sections.toArray(new Section[0]);
+        this.classById = this.classes.toArray(new Assignment[0]);
+
+        List<ClassBlock> classBlocks = new ArrayList<>();
+        for (ScheduleEntry entry : this.entries) {
+            if (entry instanceof ClassBlock classBlock) {
+                classBlocks.add(classBlock);
+            }
+        }
+        this.blocks = classBlocks.toArray(new ClassBlock[0]);
+        this.blockIndex = BlockIndex.of(classBlocks, entry -> true);
+
+        this.classIds = HashMap.newHashMap(classById.length);
+        for (int id = 0; id < classById.length; id++) {
+            classIds.putIfAbsent(classById[id], id);
+        }
+    }
+
+    List<ScheduleEntry> entries() {
+        return entries;
+    }
+
+    List<Section> sections() {
+        return sections;
+    }
+
+    List<Assignment> classes() {
+        return classes;
+    }
+
+    int blockCount() {
+        return blocks.length;
+    }
+
+    int sectionCount() {
+        return sectionById.length;
+    }
+
+    int classCount() {
+        return classById.length;
+    }
+
+    ClassBlock block(int id) {
+        return blocks[id];
+    }
+
+    /**
+     * Returns the class blocks as minute intervals, numbered by block id.
+     *
+     * @return interval index over the class blocks
+     */
+    BlockIndex blockIndex() {
+        return blockIndex;
+    }
+
+    Section section(int id) {
+        return sectionById[id];
+    }
+
+    Assignment assignment(int id) {
+        return classById[id];
+    }
+
+    /**
+     * Returns the id of a class.
+     *
+     * @param assignment class to look up
+     * @return class id, or -1 when the class does not meet on this day
+     */
+    int classId(Assignment assignment) {
+        Integer id = assignment == null ? null : classIds.get(assignment);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Writes a solved grid into fresh section maps on the class blocks.
+     *
+     * @param grid blocks × columns grid of class ids; columns past the sections are ignored
+     */
+    void materialize(int[][] grid) {
+        for (int b = 0; b < blocks.length; b++) {
+            int[] row = grid[b];
+            Map<Section, Assignment> sectionCourses = HashMap.newHashMap(sectionById.length);
+            for (int c = 0; c < sectionById.length; c++) {
+                sectionCourses.put(sectionById[c], classById[row[c]]);
+            }
+            blocks[b].setSectionCourses(sectionCourses);
+        }
+    }
+}
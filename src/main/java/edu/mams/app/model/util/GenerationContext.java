@@ -0,0 +1,69 @@
+package edu.mams.app.model.util;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Randomness and solver choice for one schedule generation.
+ * <p>
+ * Every random decision in {@link ScheduleBuilder} and {@link LatinFill} draws from
+ * {@link #random()}, so a context created with {@link #seeded(long)} reproduces the same
+ * entries for the same inputs. Use {@link #split()} to hand independent but reproducible
+ * streams to each day of a week or to parallel workers.
+ *
+ * @param random source of all random decisions
+ * @param solver strategy used to complete partial Latin squares
+ */
+public record GenerationContext(RandomGenerator random, LatinSolver solver) {
+
+    /**
+     * Creates a context, rejecting missing parts.
+     */
+    public GenerationContext {
+        if (random == null) throw new IllegalArgumentException("random must not be null");
+        if (solver == null) throw new IllegalArgumentException("solver must not be null");
+    }
+
+    /**
+     * Returns an unseeded context on the current thread's random generator.
+     *
+     * @return default context
+     */
+    public static GenerationContext defaults() {
+        return new GenerationContext(ThreadLocalRandom.current(), LatinSolver.BACKTRACKING);
+    }
+
+    /**
+     * Returns a reproducible context backed by a {@link SplittableRandom}.
+     *
+     * @param seed generation seed
+     * @return seeded context
+     */
+    public static GenerationContext seeded(long seed) {
+        return new GenerationContext(new SplittableRandom(seed), LatinSolver.BACKTRACKING);
+    }
+
+    /**
+     * Returns a copy of this context that uses another Latin solver.
+     *
+     * @param solver completion strategy
+     * @return updated context
+     */
+    public GenerationContext withSolver(LatinSolver solver) {
+        return new GenerationContext(random, solver);
+    }
+
+    /**
+     * Returns a child context with its own random stream. Splitting a seeded context in the
+     * same order always yields the same children.
+     *
+     * @return child context
+     */
+    public GenerationContext split() {
+        RandomGenerator child = random instanceof RandomGenerator.SplittableGenerator splittable
+                ? splittable.split()
+                : new SplittableRandom(random.nextLong());
+        return new GenerationContext(child, solver);
+    }
+}
@@ -0,0 +1,141 @@
+package edu.mams.app.model.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts completions of a partial Latin square or rectangle without building the grids.
+ * <p>
+ * The grid is filled one column at a time, each column being a perfect matching of rows to
+ * values. Two symmetries keep the count cheap. Columns are interchangeable apart from their
+ * preset cells, so columns with presets are counted first and the fully empty ones last. Once
+ * only empty columns remain, what is left depends on nothing but the multiset of values each
+ * row may still take, so those states are memoized under their sorted row masks.
+ */
+final class LatinCounter {
+    private final int n;
+    private final int cols;
+    private final int[][] columnPresets;   // per ordered column: value for each row, -1 if empty
+    private final int firstEmptyColumn;    // ordered columns from here on have no presets
+    private final long[] initialRowFree;
+    private final Map<State, Long> memo = new HashMap<>();
+
+    /**
+     * Creates a counter over a validated grid.
+     *
+     * @param grid n×cols grid using -1 for empty cells
+     * @param forbidden optional n×n row/value matrix
+     */
+    LatinCounter(int[][] grid, boolean[][] forbidden) {
+        this.n = grid.length;
+        this.cols = grid[0].length;
+        if (n > 64) throw new IllegalArgumentException("counting supports n ≤ 64");
+
+        long all = n == 64 ? -1L : (1L << n) - 1;
+        initialRowFree = new long[n];
+        for (int r = 0; r < n; r++) {
+            long free = all;
+            for (int c = 0; c < cols; c++) {
+                if (grid[r][c] != -1) free &= ~(1L << grid[r][c]);
+            }
+            if (forbidden != null) {
+                for (int v = 0; v < n; v++) {
+                    if (forbidden[r][v]) free &= ~(1L << v);
+                }
+            }
+            initialRowFree[r] = free;
+        }
+
+        columnPresets = new int[cols][];
+        int next = 0;
+        for (int c = 0; c < cols; c++) {
+            if (hasPreset(grid, c)) columnPresets[next++] = column(grid, c);
+        }
+        firstEmptyColumn = next;
+        for (int c = 0; c < cols; c++) {
+            if (!hasPreset(grid, c)) columnPresets[next++] = column(grid, c);
+        }
+    }
+
+    /**
+     * Counts the completions.
+     *
+     * @return number of completions
+     * @throws ArithmeticException when the count overflows a long
+     */
+    long count() {
+        return countFrom(0, initialRowFree);
+    }
+
+    private long countFrom(int column, long[] rowFree) {
+        if (column == cols) return 1;
+
+        State key = null;
+        if (column >= firstEmptyColumn) {
+            long[] sorted = rowFree.clone();
+            Arrays.sort(sorted);
+            key = new State(cols - column, sorted);
+            Long cached = memo.get(key);
+            if (cached != null) return cached;
+        }
+
+        int[] presets = columnPresets[column];
+        long used = 0;
+        for (int v : presets) {
+            if (v != -1) used |= 1L << v;
+        }
+        long total = countMatchings(column, 0, presets, used, rowFree, rowFree.clone());
+
+        if (key != null) memo.put(key, total);
+        return total;
+    }
+
+    // Enumerates the matchings of one column row by row, then recurses into the next column
+    private long countMatchings(int column, int row, int[] presets, long used, long[] rowFree, long[] nextRowFree) {
+        if (row == n) return countFrom(column + 1, nextRowFree);
+        if (presets[row] != -1) {
+            return countMatchings(column, row + 1, presets, used, rowFree, nextRowFree);
+        }
+
+        long total = 0;
+        long options = rowFree[row] & ~used;
+        while (options != 0) {
+            long bit = options & -options;
+            options ^= bit;
+            nextRowFree[row] = rowFree[row] & ~bit;
+            total = Math.addExact(total, countMatchings(column, row + 1, presets, used | bit, rowFree, nextRowFree));
+        }
+        nextRowFree[row] = rowFree[row];
+        return total;
+    }
+
+    private static boolean hasPreset(int[][] grid, int c) {
+        for (int[] row : grid) {
+            if (row[c] != -1) return true;
+        }
+        return false;
+    }
+
+    private static int[] column(int[][] grid, int c) {
+        int[] values = new int[grid.length];
+        for (int r = 0; r < grid.length; r++) {
+            values[r] = grid[r][c];
+        }
+        return values;
+    }
+
+    private record State(int remainingColumns, long[] sortedRowFree) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof State that
+                    && remainingColumns == that.remainingColumns
+                    && Arrays.equals(sortedRowFree, that.sortedRowFree);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * remainingColumns + Arrays.hashCode(sortedRowFree);
+        }
+    }
+}
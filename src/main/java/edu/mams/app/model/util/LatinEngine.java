@@ -0,0 +1,505 @@
+package edu.mams.app.model.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Bitset-backed search core for completing partial Latin rectangles.
+ * <p>
+ * The grid has {@code n} rows and {@code cols} columns, and values run from 0 to n-1. Every
+ * column must end up as a permutation of the values and every row must hold distinct values.
+ * Free values are tracked per row and per column as {@code long} words, so candidates for a
+ * cell are an AND of two masks and MRV is a popcount. Masks are updated incrementally on
+ * assign/unassign, and every assignment is recorded on a trail so backtracking is an undo.
+ * <p>
+ * After each decision the engine propagates: cells with a single candidate are forced (naked
+ * singles), values with a single possible cell in a column, or in a row of a full square, are
+ * forced (hidden singles), and any cell or value left with no option ends the branch early.
+ * Forced assignments share the decision's trail segment, so they are undone with it.
+ * <p>
+ * Searches restart with a fresh candidate shuffle whenever a run exceeds its backtrack budget.
+ * Budgets follow the Luby sequence (1, 1, 2, 1, 1, 2, 4, ...) times a unit, which bounds the
+ * expected cost of unlucky orderings while the growing budgets keep the search complete.
+ */
+final class LatinEngine {
+    /**
+     * How a search run ended.
+     */
+    enum Outcome {
+        /** The grid holds a completion. */
+        SOLVED,
+        /** Every branch failed, which proves no completion exists. */
+        EXHAUSTED,
+        /** The caller asked the search to stop before it finished. */
+        STOPPED,
+        /** The run used up its backtrack budget; a restart may still succeed. */
+        BUDGET_EXCEEDED
+    }
+
+    /** Backtracks allowed per unit of the Luby restart schedule. */
+    static final int RESTART_UNIT = 64;
+    private static final int STOP_CHECK_MASK = 255;
+    private static final int COMPLETE = -1;
+    private static final int DEAD_END = -2;
+
+    private final int n;
+    private final int cols;
+    private final int words;
+
+    private final int[] grid;        // rows*cols cells, -1 when empty
+    private final long[] rowFree;    // n*words: values still placeable in each row
+    private final long[] colFree;    // cols*words: values still missing from each column
+    private final long[] rowForbidden; // n*words: values that may never appear in each row
+    private final boolean square;    // rows must then contain every value as well
+
+    private final int[] empty;       // unordered list of empty cells
+    private final int[] emptyPos;    // index into empty, or -1 when the cell is filled
+    private int emptyCount;
+
+    private final int[] trail;       // cells in assignment order
+    private int trailSize;
+    private int rootMark = -1;       // trail size after propagating the initial grid
+    private boolean rootFailed;
+    private boolean enumerating;     // nextSolution has returned at least one completion
+
+    private final int[] frameCell;
+    private final int[] frameMark;
+    private final int[] frameNext;
+    private final int[] frameCount;
+    private final int[][] frameCands;
+    private int depth;
+
+    private final long[] once;       // scratch masks for hidden-single detection
+    private final long[] twice;
+
+    private final RandomGenerator rnd;
+
+    /**
+     * Creates an engine over a validated grid. Cells holding -1 are empty; every other value is
+     * treated as fixed and must already satisfy the Latin and forbidden constraints.
+     *
+     * @param partial n×cols grid
+     * @param forbidden optional n×n matrix; {@code forbidden[r][v]} keeps v out of row r
+     * @param rnd source used to shuffle candidate order, or {@code null} for ascending order
+     */
+    LatinEngine(int[][] partial, boolean[][] forbidden, RandomGenerator rnd) {
+        this.n = partial.length;
+        this.cols = partial[0].length;
+        this.words = (n + 63) >>> 6;
+        this.square = cols == n;
+        this.rnd = rnd;
+
+        int cells = n * cols;
+        grid = new int[cells];
+        rowFree = new long[n * words];
+        colFree = new long[cols * words];
+        rowForbidden = new long[n * words];
+        empty = new int[cells];
+        emptyPos = new int[cells];
+        trail = new int[cells];
+        frameCell = new int[cells];
+        frameMark = new int[cells];
+        frameNext = new int[cells];
+        frameCount = new int[cells];
+        frameCands = new int[cells][];
+        once = new long[words];
+        twice = new long[words];
+
+        for (int r = 0; r < n; r++) {
+            fillAll(rowFree, r);
+            if (forbidden != null) {
+                for (int v = 0; v < n; v++) {
+                    if (forbidden[r][v]) {
+                        clearBit(rowFree, r, v);
+                        setBit(rowForbidden, r, v);
+                    }
+                }
+            }
+        }
+        for (int c = 0; c < cols; c++) {
+            fillAll(colFree, c);
+        }
+
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < cols; c++) {
+                int cell = r * cols + c;
+                int v = partial[r][c];
+                grid[cell] = v;
+                if (v == -1) {
+                    emptyPos[cell] = emptyCount;
+                    empty[emptyCount++] = cell;
+                } else {
+                    emptyPos[cell] = -1;
+                    clearBit(rowFree, r, v);
+                    clearBit(colFree, c, v);
+                }
+            }
+        }
+    }
+
+    /**
+     * Searches for a completion of the grid using Luby restarts, giving up when the calling
+     * thread is interrupted.
+     *
+     * @return {@code true} when a completion was found; the grid then holds it
+     * @throws CancellationException when the thread was interrupted before the search ended
+     */
+    boolean solve() {
+        Thread caller = Thread.currentThread();
+        Outcome outcome = solve(caller::isInterrupted, RESTART_UNIT);
+        if (outcome == Outcome.STOPPED) {
+            throw new CancellationException("The search was interrupted");
+        }
+        return outcome == Outcome.SOLVED;
+    }
+
+    /**
+     * Searches for a completion with Luby restarts, polling {@code stop} so another thread can
+     * cancel the run cooperatively.
+     *
+     * @param stop returns {@code true} once the search should give up
+     * @param restartUnit backtracks per unit of the Luby schedule
+     * @return {@link Outcome#SOLVED}, {@link Outcome#EXHAUSTED} or {@link Outcome#STOPPED}
+     */
+    Outcome solve(BooleanSupplier stop, int restartUnit) {
+        for (int run = 1; ; run++) {
+            Outcome outcome = search(stop, luby(run) * restartUnit);
+            if (outcome != Outcome.BUDGET_EXCEEDED) return outcome;
+        }
+    }
+
+    /**
+     * Runs one search from the root, polling {@code stop} every few hundred steps.
+     * <p>
+     * Each call starts over from the initial grid, and candidate lists are reshuffled as they
+     * are rebuilt, so calling it again after {@link Outcome#BUDGET_EXCEEDED} is a restart.
+     * {@link Outcome#EXHAUSTED} is only returned when the whole space was explored.
+     *
+     * @param stop returns {@code true} once the search should give up
+     * @param backtrackBudget failed branches allowed before giving up on this run
+     * @return how the search ended
+     */
+    Outcome search(BooleanSupplier stop, long backtrackBudget) {
+        if (!propagateRoot()) return Outcome.EXHAUSTED;
+        undoTo(rootMark);
+        depth = 0;
+        enumerating = false;
+        return run(true, stop, backtrackBudget);
+    }
+
+    /**
+     * Advances to the next completion in search order, for enumerating all of them.
+     * <p>
+     * The first call searches from the root; later calls resume where the previous completion
+     * was found. Candidates are tried in ascending order when the engine has no random source,
+     * which makes the sequence stable across runs.
+     *
+     * @return {@code true} when the grid holds a completion not returned before
+     */
+    boolean nextSolution() {
+        if (!propagateRoot()) return false;
+        boolean resuming = enumerating;
+        if (!resuming) {
+            undoTo(rootMark);
+            depth = 0;
+            enumerating = true;
+        }
+        return run(!resuming, () -> false, Long.MAX_VALUE) == Outcome.SOLVED;
+    }
+
+    private boolean propagateRoot() {
+        if (rootMark < 0) {
+            rootFailed = !propagate();
+            rootMark = trailSize;
+        }
+        return !rootFailed;
+    }
+
+    // Drives the decision stack; descending=false resumes by trying the top frame's next value
+    private Outcome run(boolean descending, BooleanSupplier stop, long backtrackBudget) {
+        long backtracks = 0;
+        int steps = 0;
+        while (true) {
+            if ((++steps & STOP_CHECK_MASK) == 0 && stop.getAsBoolean()) return Outcome.STOPPED;
+            if (descending) {
+                int cell = pickCell();
+                if (cell == COMPLETE) return Outcome.SOLVED;
+                if (cell != DEAD_END) {
+                    pushFrame(cell);
+                } else if (++backtracks > backtrackBudget) {
+                    return Outcome.BUDGET_EXCEEDED;
+                }
+            } else if (++backtracks > backtrackBudget) {
+                return Outcome.BUDGET_EXCEEDED;
+            }
+
+            if (depth == 0) return Outcome.EXHAUSTED;
+            int f = depth - 1;
+            undoTo(frameMark[f]);
+            if (frameNext[f] == frameCount[f]) {
+                depth--;
+                descending = false;
+                continue;
+            }
+            assign(frameCell[f], frameCands[f][frameNext[f]++]);
+            descending = propagate();
+        }
+    }
+
+    /**
+     * Returns the i-th term (1-based) of the Luby sequence 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, ...
+     *
+     * @param i position, at least 1
+     * @return sequence value
+     */
+    static long luby(int i) {
+        long index = i;
+        while (true) {
+            int k = 1;
+            while ((1L << k) - 1 < index) k++;
+            if ((1L << k) - 1 == index) return 1L << (k - 1);
+            index -= (1L << (k - 1)) - 1;
+        }
+    }
+
+    /**
+     * Copies the current grid into an n×cols array.
+     *
+     * @param out destination grid
+     */
+    void copyInto(int[][] out) {
+        for (int r = 0; r < n; r++) {
+            System.arraycopy(grid, r * cols, out[r], 0, cols);
+        }
+    }
+
+    // ===== Search helpers =====
+
+    // Returns the empty cell with the fewest candidates, COMPLETE, or DEAD_END
+    private int pickCell() {
+        if (emptyCount == 0) return COMPLETE;
+        int best = DEAD_END;
+        int bestCount = Integer.MAX_VALUE;
+        for (int i = 0; i < emptyCount; i++) {
+            int cell = empty[i];
+            int count = candidateCount(cell / cols, cell % cols);
+            if (count == 0) return DEAD_END;
+            if (count < bestCount) {
+                bestCount = count;
+                best = cell;
+                if (count == 1) break;
+            }
+        }
+        return best;
+    }
+
+    private void pushFrame(int cell) {
+        int r = cell / cols;
+        int c = cell % cols;
+        int[] cands = frameCands[depth];
+        if (cands == null) {
+            cands = new int[n];
+            frameCands[depth] = cands;
+        }
+
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            long bits = rowFree[r * words + w] & colFree[c * words + w];
+            while (bits != 0) {
+                cands[count++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+
+        // Randomize candidate order for variety; enumeration keeps ascending order
+        for (int i = count - 1; i > 0 && rnd != null; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = cands[i];
+            cands[i] = cands[j];
+            cands[j] = t;
+        }
+
+        frameCell[depth] = cell;
+        frameMark[depth] = trailSize;
+        frameNext[depth] = 0;
+        frameCount[depth] = count;
+        depth++;
+    }
+
+    // ===== Propagation =====
+
+    // Forces naked and hidden singles until a fixpoint; false when a contradiction shows up
+    private boolean propagate() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (int i = 0; i < emptyCount; i++) {
+                int cell = empty[i];
+                int r = cell / cols;
+                int c = cell % cols;
+                int count = candidateCount(r, c);
+                if (count == 0) return false;
+                if (count == 1) {
+                    assign(cell, firstCandidate(r, c));
+                    i--; // assign moved the last empty cell into slot i
+                    changed = true;
+                }
+            }
+
+            for (int c = 0; c < cols; c++) {
+                int forced = columnHiddenSingles(c);
+                if (forced < 0) return false;
+                if (forced > 0) changed = true;
+            }
+
+            if (square) {
+                for (int r = 0; r < n; r++) {
+                    int forced = rowHiddenSingles(r);
+                    if (forced < 0) return false;
+                    if (forced > 0) changed = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Returns the number of forced cells, or -1 when a missing value has nowhere to go
+    private int columnHiddenSingles(int c) {
+        clearScratch();
+        for (int r = 0; r < n; r++) {
+            if (grid[r * cols + c] == -1) {
+                accumulate(r, c);
+            }
+        }
+
+        int forced = 0;
+        for (int w = 0; w < words; w++) {
+            long need = colFree[c * words + w];
+            if ((need & ~once[w]) != 0) return -1;
+            long singles = need & once[w] & ~twice[w];
+            while (singles != 0) {
+                int v = (w << 6) + Long.numberOfTrailingZeros(singles);
+                singles &= singles - 1;
+                int row = -1;
+                for (int r = 0; r < n && row == -1; r++) {
+                    if (grid[r * cols + c] == -1 && hasBit(rowFree, r, v)) row = r;
+                }
+                if (row == -1 || !hasBit(colFree, c, v)) return -1;
+                assign(row * cols + c, v);
+                forced++;
+            }
+        }
+        return forced;
+    }
+
+    // Row version of columnHiddenSingles; only meaningful when the grid is square
+    private int rowHiddenSingles(int r) {
+        clearScratch();
+        for (int c = 0; c < cols; c++) {
+            if (grid[r * cols + c] == -1) {
+                accumulate(r, c);
+            }
+        }
+
+        int forced = 0;
+        for (int w = 0; w < words; w++) {
+            long need = rowFree[r * words + w] | rowForbidden[r * words + w];
+            if ((need & ~once[w]) != 0) return -1;
+            long singles = need & once[w] & ~twice[w];
+            while (singles != 0) {
+                int v = (w << 6) + Long.numberOfTrailingZeros(singles);
+                singles &= singles - 1;
+                int col = -1;
+                for (int c = 0; c < cols && col == -1; c++) {
+                    if (grid[r * cols + c] == -1 && hasBit(colFree, c, v)) col = c;
+                }
+                if (col == -1 || !hasBit(rowFree, r, v)) return -1;
+                assign(r * cols + col, v);
+                forced++;
+            }
+        }
+        return forced;
+    }
+
+    private void clearScratch() {
+        for (int w = 0; w < words; w++) {
+            once[w] = 0;
+            twice[w] = 0;
+        }
+    }
+
+    private void accumulate(int r, int c) {
+        for (int w = 0; w < words; w++) {
+            long cand = rowFree[r * words + w] & colFree[c * words + w];
+            twice[w] |= once[w] & cand;
+            once[w] |= cand;
+        }
+    }
+
+    private int firstCandidate(int r, int c) {
+        for (int w = 0; w < words; w++) {
+            long bits = rowFree[r * words + w] & colFree[c * words + w];
+            if (bits != 0) return (w << 6) + Long.numberOfTrailingZeros(bits);
+        }
+        return -1;
+    }
+
+    private int candidateCount(int r, int c) {
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(rowFree[r * words + w] & colFree[c * words + w]);
+        }
+        return count;
+    }
+
+    private void assign(int cell, int v) {
+        int r = cell / cols;
+        int c = cell % cols;
+        grid[cell] = v;
+        clearBit(rowFree, r, v);
+        clearBit(colFree, c, v);
+
+        int pos = emptyPos[cell];
+        int last = empty[--emptyCount];
+        empty[pos] = last;
+        emptyPos[last] = pos;
+        emptyPos[cell] = -1;
+
+        trail[trailSize++] = cell;
+    }
+
+    private void undoTo(int mark) {
+        while (trailSize > mark) {
+            int cell = trail[--trailSize];
+            int v = grid[cell];
+            grid[cell] = -1;
+            setBit(rowFree, cell / cols, v);
+            setBit(colFree, cell % cols, v);
+            emptyPos[cell] = emptyCount;
+            empty[emptyCount++] = cell;
+        }
+    }
+
+    // ===== Bitset utilities =====
+
+    private void fillAll(long[] masks, int index) {
+        for (int w = 0; w < words; w++) {
+            int bitsInWord = Math.min(64, n - (w << 6));
+            masks[index * words + w] = bitsInWord == 64 ? -1L : (1L << bitsInWord) - 1;
+        }
+    }
+
+    private void setBit(long[] masks, int index, int v) {
+        masks[index * words + (v >>> 6)] |= 1L << v;
+    }
+
+    private boolean hasBit(long[] masks, int index, int v) {
+        return (masks[index * words + (v >>> 6)] & (1L << v)) != 0;
+    }
+
+    private void clearBit(long[] masks, int index, int v) {
+        masks[index * words + (v >>> 6)] &= ~(1L << v);
+    }
+}
@@ -0,0 +1,157 @@
+package edu.mams.app.model.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Polynomial-time necessary conditions for completing a partial Latin square or rectangle.
+ * <p>
+ * Every line of the grid has to be filled by distinct representatives: the empty cells of a
+ * column take distinct missing values, the empty cells of a row take distinct values the row
+ * still lacks, and each value missing from some columns needs a distinct row in each of them.
+ * By Hall's theorem that is possible exactly when no group of k members reaches fewer than k
+ * options, and a maximum matching exposes such a group when one exists. Passing every check
+ * does not promise a completion, but failing one proves there is none, long before an
+ * exhaustive search would.
+ */
+final class LatinFeasibility {
+
+    /**
+     * Kind of line a conflict was found on.
+     */
+    enum Line {
+        /** Members are columns of empty cells in the row, options are values. */
+        ROW,
+        /** Members are rows of empty cells in the column, options are values. */
+        COLUMN,
+        /** Members are columns still missing the value, options are rows. */
+        VALUE
+    }
+
+    /**
+     * A group of members that together reach fewer options than there are members.
+     *
+     * @param kind kind of line checked
+     * @param line row, column or value index the check ran on
+     * @param members conflicting members in ascending order
+     * @param options every option any member can still take, in ascending order
+     */
+    record Conflict(Line kind, int line, int[] members, int[] options) {
+        @Override
+        public String toString() {
+            return switch (kind) {
+                case ROW -> "row " + line + ": columns " + Arrays.toString(members)
+                        + " can only take values " + Arrays.toString(options);
+                case COLUMN -> "column " + line + ": rows " + Arrays.toString(members)
+                        + " can only take values " + Arrays.toString(options);
+                case VALUE -> "value " + line + ": columns " + Arrays.toString(members)
+                        + " can only place it in rows " + Arrays.toString(options);
+            };
+        }
+    }
+
+    private LatinFeasibility() {
+    }
+
+    /**
+     * Checks Hall's condition on every row, column and value of a validated grid.
+     *
+     * @param grid n×cols grid using -1 for empty cells
+     * @param forbidden optional n×n matrix; {@code forbidden[r][v]} keeps v out of row r
+     * @return one conflict per failing line, empty when every check passes
+     */
+    static List<Conflict> check(int[][] grid, boolean[][] forbidden) {
+        int n = grid.length;
+        int cols = grid[0].length;
+        boolean[][] rowHas = new boolean[n][n];
+        boolean[][] colHas = new boolean[cols][n];
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < cols; c++) {
+                int v = grid[r][c];
+                if (v != -1) {
+                    rowHas[r][v] = true;
+                    colHas[c][v] = true;
+                }
+            }
+        }
+
+        List<Conflict> conflicts = new ArrayList<>();
+        int[] members = new int[Math.max(n, cols)];
+        int[] scratch = new int[n];
+
+        for (int c = 0; c < cols; c++) {
+            List<int[]> adj = new ArrayList<>();
+            int count = 0;
+            for (int r = 0; r < n; r++) {
+                if (grid[r][c] != -1) continue;
+                int options = 0;
+                for (int v = 0; v < n; v++) {
+                    if (!rowHas[r][v] && !colHas[c][v] && !isForbidden(forbidden, r, v)) scratch[options++] = v;
+                }
+                members[count++] = r;
+                adj.add(Arrays.copyOf(scratch, options));
+            }
+            addIfDeficient(conflicts, Line.COLUMN, c, members, adj, n);
+        }
+
+        for (int r = 0; r < n; r++) {
+            List<int[]> adj = new ArrayList<>();
+            int count = 0;
+            for (int c = 0; c < cols; c++) {
+                if (grid[r][c] != -1) continue;
+                int options = 0;
+                for (int v = 0; v < n; v++) {
+                    if (!rowHas[r][v] && !colHas[c][v] && !isForbidden(forbidden, r, v)) scratch[options++] = v;
+                }
+                members[count++] = c;
+                adj.add(Arrays.copyOf(scratch, options));
+            }
+            addIfDeficient(conflicts, Line.ROW, r, members, adj, n);
+        }
+
+        for (int v = 0; v < n; v++) {
+            List<int[]> adj = new ArrayList<>();
+            int count = 0;
+            for (int c = 0; c < cols; c++) {
+                if (colHas[c][v]) continue;
+                int options = 0;
+                for (int r = 0; r < n; r++) {
+                    if (grid[r][c] == -1 && !rowHas[r][v] && !isForbidden(forbidden, r, v)) scratch[options++] = r;
+                }
+                members[count++] = c;
+                adj.add(Arrays.copyOf(scratch, options));
+            }
+            addIfDeficient(conflicts, Line.VALUE, v, members, adj, n);
+        }
+        return conflicts;
+    }
+
+    // Matches the members of one line and records the Hall violator if the matching falls short
+    private static void addIfDeficient(List<Conflict> conflicts, Line kind, int line,
+                                       int[] members, List<int[]> adjList, int optionCount) {
+        if (adjList.isEmpty()) return;
+        int[][] adj = adjList.toArray(new int[0][]);
+        BipartiteMatcher matcher = new BipartiteMatcher(optionCount, adj);
+        if (matcher.maxMatching() == adj.length) return;
+
+        int[] group = matcher.deficientLeft();
+        int[] ids = new int[group.length];
+        boolean[] reached = new boolean[optionCount];
+        for (int i = 0; i < group.length; i++) {
+            ids[i] = members[group[i]];
+            for (int option : adj[group[i]]) reached[option] = true;
+        }
+
+        int[] options = new int[optionCount];
+        int count = 0;
+        for (int o = 0; o < optionCount; o++) {
+            if (reached[o]) options[count++] = o;
+        }
+        conflicts.add(new Conflict(kind, line, ids, Arrays.copyOf(options, count)));
+    }
+
+    private static boolean isForbidden(boolean[][] forbidden, int r, int v) {
+        return forbidden != null && forbidden[r][v];
+    }
+}
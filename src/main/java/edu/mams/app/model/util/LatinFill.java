@@ -2,6 +2,9 @@ package edu.mams.app.model.util;
 
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The {@code LatinFill} class provides utilities for generating Latin squares
@@ -24,12 +27,17 @@ public class LatinFill {
 
     /** Generate with row-number constraints:
      *  forbidden[r][v] == true  => value v cannot appear anywhere in row r
+     *  Throws IllegalStateException when no such grid exists.
      */
     public static int[][] generate(int n, int cols, boolean[][] forbidden) {
         return generate(n, cols, forbidden, ThreadLocalRandom.current());
     }
 
-    private static int[][] generate(int n, int cols, Random rnd) {
+    /**
+     * Same as {@link #generate(int, int)}, drawing all randomness from {@code rnd} so a seeded
+     * generator reproduces the same grid.
+     */
+    public static int[][] generate(int n, int cols, RandomGenerator rnd) {
         checkArgs(n, cols, null);
 
         int[] symPerm = identity(n);  // permutation of symbols (0..n-1)
@@ -43,24 +51,33 @@ public class LatinFill {
         return buildFromPerms(n, cols, symPerm, rowPerm, colPick);
     }
 
-    private static int[][] generate(int n, int cols, boolean[][] forbidden, Random rnd) {
+    /**
+     * Same as {@link #generate(int, int, boolean[][])}, drawing all randomness from {@code rnd}
+     * so a seeded generator reproduces the same grid.
+     */
+    public static int[][] generate(int n, int cols, boolean[][] forbidden, RandomGenerator rnd) {
+        // Build one column at a time by bipartite matching, falling back to the backtracking
+        // engine when an earlier column choice leaves a later column unmatched
         checkArgs(n, cols, forbidden);
-        final int MAX_TRIES = 10000;
 
-        for (int attempt = 0; attempt < MAX_TRIES; attempt++) {
-            int[] symPerm = identity(n);
-            int[] rowPerm = identity(n);
-            int[] colPick = pickKPermutation(n, cols, rnd);
+        int[][] matched = buildByColumnMatching(n, cols, forbidden, rnd);
+        if (matched != null) {
+            sanityCheckColumns(matched, n, cols);
+            return matched;
+        }
 
-            shuffle(symPerm, rnd);
-            shuffle(rowPerm, rnd);
+        int[][] grid = new int[n][cols];
+        for (int[] row : grid) {
+            Arrays.fill(row, -1);
+        }
+        requireHallCondition(grid, forbidden);
 
-            if (!violates(forbidden, n, cols, symPerm, rowPerm, colPick)) {
-                return buildFromPerms(n, cols, symPerm, rowPerm, colPick);
-            }
+        // Exhausting the backtracking search proves infeasibility
+        if (!fillLatinSquare(grid, forbidden, rnd)) {
+            throw new IllegalStateException("No " + n + "×" + cols + " Latin rectangle satisfies the forbidden constraints.");
         }
-        throw new IllegalStateException("Could not satisfy constraints after many tries. " +
-                "Your constraints may be too tight.");
+        sanityCheckColumns(grid, n, cols);
+        return grid;
     }
 
     // ===== Core builders / checks =====
@@ -82,35 +99,185 @@ public class LatinFill {
         return out;
     }
 
+    // Each column is a perfect matching of rows to values that are neither forbidden in the row
+    // nor already used in it. Without forbidden values every column is guaranteed to match.
+    private static int[][] buildByColumnMatching(int n, int cols, boolean[][] forbidden, RandomGenerator rnd) {
+        int[][] out = new int[n][cols];
+        boolean[][] rowUsed = new boolean[n][n];
+        int[] rowOrder = identity(n);
+        int[] valueOrder = identity(n);
+        int[] scratch = new int[n];
+
+        for (int c = 0; c < cols; c++) {
+            shuffle(rowOrder, rnd);
+            shuffle(valueOrder, rnd);
+
+            int[][] adj = new int[n][];
+            for (int i = 0; i < n; i++) {
+                int r = rowOrder[i];
+                int count = 0;
+                for (int v : valueOrder) {
+                    if (!rowUsed[r][v] && (forbidden == null || !forbidden[r][v])) {
+                        scratch[count++] = v;
+                    }
+                }
+                adj[i] = Arrays.copyOf(scratch, count);
+            }
+
+            BipartiteMatcher matcher = new BipartiteMatcher(n, adj);
+            if (matcher.maxMatching() < n) return null;
+
+            for (int i = 0; i < n; i++) {
+                int r = rowOrder[i];
+                int v = matcher.matchOfLeft(i);
+                out[r][c] = v;
+                rowUsed[r][v] = true;
+            }
+        }
+        return out;
+    }
+
     /**
-     * Generate an n×n Latin square that extends a partially filled square.
+     * Generate an n×n Latin square, or n×cols rectangle, that extends a partially filled grid.
      * Cells with value -1 are treated as empty.
      * Respects row-level forbidden constraints.
+     * Grids that fail Hall's condition on some row, column or value are rejected before any
+     * search, with the offending line named in the message.
      */
     public static int[][] generateFromPartial(int[][] partial, boolean[][] forbidden) {
-        return generateFromPartial(partial, forbidden, ThreadLocalRandom.current());
+        return generateFromPartial(partial, forbidden, LatinSolver.BACKTRACKING);
     }
 
-    private static int[][] generateFromPartial(int[][] partial, boolean[][] forbidden, Random rnd) {
+    /**
+     * Same as {@link #generateFromPartial(int[][], boolean[][])}, using the given
+     * completion strategy such as {@link LatinSolver#DANCING_LINKS}.
+     */
+    public static int[][] generateFromPartial(int[][] partial, boolean[][] forbidden, LatinSolver solver) {
+        return generateFromPartial(partial, forbidden, solver, ThreadLocalRandom.current());
+    }
+
+    private static int[][] generateFromPartial(int[][] partial, boolean[][] forbidden, RandomGenerator rnd) {
+        return generateFromPartial(partial, forbidden, LatinSolver.BACKTRACKING, rnd);
+    }
+
+    /**
+     * Same as {@link #generateFromPartial(int[][], boolean[][], LatinSolver)}, drawing all
+     * randomness from {@code rnd}. Deterministic solvers give the same grid for the same seed.
+     */
+    public static int[][] generateFromPartial(int[][] partial, boolean[][] forbidden, LatinSolver solver, RandomGenerator rnd) {
+        int[][] grid = copyPartial(partial, forbidden);
+        int n = grid.length;
+        requireHallCondition(grid, forbidden);
+
+        if (solver.complete(grid, forbidden, rnd)) {
+            sanityCheckColumns(grid, n, grid[0].length);
+            return grid;
+        }
+
+        throw new IllegalStateException(
+                "Could not extend partial square. Constraints may be incompatible.");
+    }
+
+    /**
+     * Lazily enumerates every completion of a partial square or n×cols rectangle.
+     * Cells with value -1 are treated as empty and forbidden[r][v] keeps v out of row r.
+     * Completions come in a fixed search order, so the stream can be paged through
+     * with skip/limit; each grid is only built when the stream reaches it.
+     */
+    public static Stream<int[][]> completions(int[][] partial, boolean[][] forbidden) {
+        int[][] grid = copyPartial(partial, forbidden);
+        int n = grid.length;
+        int cols = grid[0].length;
+        LatinEngine engine = new LatinEngine(grid, forbidden, null);
+
+        Iterator<int[][]> iterator = new Iterator<>() {
+            private Boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                if (ready == null) ready = engine.nextSolution();
+                return ready;
+            }
+
+            @Override
+            public int[][] next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                ready = null;
+                int[][] out = new int[n][cols];
+                engine.copyInto(out);
+                return out;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    /**
+     * Completes a partial square or n×cols rectangle (n ≤ 64) so that it differs from
+     * {@code target} in as few cells as possible. Cells with value -1 are empty in both grids;
+     * an empty target cell counts as changed whatever it receives. Returns null when no
+     * completion exists.
+     */
+    public static int[][] closestCompletion(int[][] partial, boolean[][] forbidden, int[][] target) {
+        Closest closest = closestCompletion(partial, forbidden, target, Long.MAX_VALUE);
+        return closest == null ? null : closest.grid();
+    }
+
+    /**
+     * Same as {@link #closestCompletion(int[][], boolean[][], int[][])}, visiting at most
+     * {@code nodeBudget} search nodes. When the budget runs out, returns the closest completion
+     * found so far, or any completion when none was found, marked as not minimal.
+     */
+    public static Closest closestCompletion(int[][] partial, boolean[][] forbidden, int[][] target, long nodeBudget) {
+        LatinNearest search = new LatinNearest(copyPartial(partial, forbidden), forbidden, target, nodeBudget);
+        int[][] best = search.find();
+        if (best != null) return new Closest(best, search.exhaustive());
+        if (search.exhaustive()) return null;
+        try {
+            return new Closest(generateFromPartial(partial, forbidden), false);
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Result of a bounded {@link #closestCompletion(int[][], boolean[][], int[][], long)}.
+     *
+     * @param grid completed grid
+     * @param minimal true when no completion differs from the target in fewer cells
+     */
+    public record Closest(int[][] grid, boolean minimal) {
+    }
+
+    /**
+     * Counts the completions of a partial square or n×cols rectangle (n ≤ 64) without
+     * building them. Throws ArithmeticException if the count does not fit in a long.
+     */
+    public static long countCompletions(int[][] partial, boolean[][] forbidden) {
+        int[][] grid = copyPartial(partial, forbidden);
+        return new LatinCounter(grid, forbidden).count();
+    }
+
+    // Validates a partial grid and returns a copy of it
+    private static int[][] copyPartial(int[][] partial, boolean[][] forbidden) {
         int n = partial.length;
         if (n == 0) throw new IllegalArgumentException("partial must be non-empty");
+        int cols = partial[0].length;
         for (int[] row : partial) {
-            if (row.length != n)
-                throw new IllegalArgumentException("partial must be square (n×n)");
+            if (row.length != cols)
+                throw new IllegalArgumentException("partial rows must all have the same length");
         }
-        checkArgs(n, n, forbidden);
+        checkArgs(n, cols, forbidden);
 
-        int[][] grid = new int[n][n];
+        int[][] grid = new int[n][cols];
         boolean[][] rowUsed = new boolean[n][n];
-        boolean[][] colUsed = new boolean[n][n];
-        int emptyCount = 0;
+        boolean[][] colUsed = new boolean[cols][n];
 
         for (int r = 0; r < n; r++) {
-            for (int c = 0; c < n; c++) {
+            for (int c = 0; c < cols; c++) {
                 int v = partial[r][c];
                 if (v == -1) {
                     grid[r][c] = -1;
-                    emptyCount++;
                     continue;
                 }
                 if (v < 0 || v >= n) {
@@ -127,95 +294,24 @@ public class LatinFill {
                 colUsed[c][v] = true;
             }
         }
-
-        if (emptyCount == 0) return grid;
-
-        if (fillLatinSquare(grid, rowUsed, colUsed, forbidden, rnd)) {
-            sanityCheckColumns(grid, n, n);
-            return grid;
-        }
-
-        throw new IllegalStateException(
-                "Could not extend partial square. Constraints may be incompatible.");
+        return grid;
     }
 
-    private static boolean fillLatinSquare(int[][] grid,
-                                           boolean[][] rowUsed,
-                                           boolean[][] colUsed,
-                                           boolean[][] forbidden,
-                                           Random rnd) {
-        int n = grid.length;
-        int bestR = -1;
-        int bestC = -1;
-        int bestCount = Integer.MAX_VALUE;
-
-        // Choose the next empty cell with the fewest candidates (MRV)
-        for (int r = 0; r < n; r++) {
-            for (int c = 0; c < n; c++) {
-                if (grid[r][c] != -1) continue;
-                int count = 0;
-                for (int v = 0; v < n; v++) {
-                    if (!rowUsed[r][v] && !colUsed[c][v] && (forbidden == null || !forbidden[r][v])) {
-                        count++;
-                    }
-                }
-                if (count == 0) return false;
-                if (count < bestCount) {
-                    bestCount = count;
-                    bestR = r;
-                    bestC = c;
-                    if (bestCount == 1) break;
-                }
-            }
-            if (bestCount == 1) break;
-        }
-
-        if (bestR == -1) return true; // no empty cells
-
-        int[] candidates = new int[bestCount];
-        int idx = 0;
-        for (int v = 0; v < n; v++) {
-            if (!rowUsed[bestR][v] && !colUsed[bestC][v] && (forbidden == null || !forbidden[bestR][v])) {
-                candidates[idx++] = v;
-            }
-        }
-
-        // Randomize candidate order for variety
-        for (int i = candidates.length - 1; i > 0; i--) {
-            int j = rnd.nextInt(i + 1);
-            int t = candidates[i];
-            candidates[i] = candidates[j];
-            candidates[j] = t;
+    // Fails fast, naming every line that breaks Hall's condition
+    private static void requireHallCondition(int[][] grid, boolean[][] forbidden) {
+        List<LatinFeasibility.Conflict> conflicts = LatinFeasibility.check(grid, forbidden);
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException("Constraints are incompatible: " + conflicts);
         }
-
-        for (int v : candidates) {
-            grid[bestR][bestC] = v;
-            rowUsed[bestR][v] = true;
-            colUsed[bestC][v] = true;
-
-            if (fillLatinSquare(grid, rowUsed, colUsed, forbidden, rnd)) return true;
-
-            grid[bestR][bestC] = -1;
-            rowUsed[bestR][v] = false;
-            colUsed[bestC][v] = false;
-        }
-
-        return false;
     }
 
-
-    // Check if any forbidden[r][value] would be hit by current perms/column choices
-    private static boolean violates(boolean[][] forbidden, int n, int cols, int[] symPerm, int[] rowPerm, int[] colPick) {
-        if (forbidden == null) return false;
-        for (int r = 0; r < n; r++) {
-            int rr = rowPerm[r];
-            for (int j = 0; j < cols; j++) {
-                int cc = colPick[j];
-                int val = symPerm[(rr + cc) % n];
-                if (forbidden[r][val]) return true;
-            }
-        }
-        return false;
+    // Completes the grid (square or n×cols rectangle) in place on the bitset engine. Runs that
+    // exceed their backtrack budget restart with a fresh shuffle, budgets following Luby.
+    static boolean fillLatinSquare(int[][] grid, boolean[][] forbidden, RandomGenerator rnd) {
+        LatinEngine engine = new LatinEngine(grid, forbidden, rnd);
+        if (!engine.solve()) return false;
+        engine.copyInto(grid);
+        return true;
     }
 
     private static void sanityCheckColumns(int[][] grid, int n, int cols) {
@@ -253,7 +349,7 @@ public class LatinFill {
     }
 
     // Fisher–Yates
-    private static void shuffle(int[] a, Random rnd) {
+    private static void shuffle(int[] a, RandomGenerator rnd) {
         for (int i = a.length - 1; i > 0; i--) {
             int j = rnd.nextInt(i + 1);
             int t = a[i]; a[i] = a[j]; a[j] = t;
@@ -261,7 +357,7 @@ public class LatinFill {
     }
 
     // Random k-permutation (sample k distinct columns, in random order)
-    private static int[] pickKPermutation(int n, int k, Random rnd) {
+    private static int[] pickKPermutation(int n, int k, RandomGenerator rnd) {
         int[] base = identity(n);
         // partial shuffle to first k positions
         for (int i = 0; i < k; i++) {
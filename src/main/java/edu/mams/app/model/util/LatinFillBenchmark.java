@@ -0,0 +1,102 @@
+package edu.mams.app.model.util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Command-line benchmark comparing {@link LatinSolver} strategies on random partial squares.
+ * <p>
+ * Each instance is a random Latin square of order n (a permuted cyclic square) with a share
+ * of its cells blanked out, so every instance is known to be completable. Both strategies
+ * solve the same instances, and the table reports the median time per completion.
+ */
+public class LatinFillBenchmark {
+    private static final int[] SIZES = {6, 8, 10, 12, 15, 18, 21, 24, 27, 30};
+    private static final int INSTANCES = 7;
+    private static final int WARMUP_ROUNDS = 3;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional blank fraction (default 0.5) and seed (default 20260409)
+     */
+    public static void main(String[] args) {
+        double blankFraction = args.length > 0 ? Double.parseDouble(args[0]) : 0.5;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 20260409L;
+
+        System.out.println("LatinFill strategy benchmark");
+        System.out.println("============================");
+        System.out.println("Blank fraction: " + blankFraction + ", seed: " + seed + ", instances per size: " + INSTANCES);
+        System.out.println();
+
+        Random warmupRandom = new Random(seed - 1);
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (int n : SIZES) {
+                int[][] partial = randomPartial(n, blankFraction, warmupRandom);
+                time(LatinSolver.BACKTRACKING, partial, warmupRandom);
+                time(LatinSolver.DANCING_LINKS, partial, warmupRandom);
+            }
+        }
+
+        System.out.printf("%4s  %18s  %18s%n", "n", "backtracking (ms)", "dancing links (ms)");
+        Random random = new Random(seed);
+        for (int n : SIZES) {
+            double[] backtracking = new double[INSTANCES];
+            double[] dancingLinks = new double[INSTANCES];
+            for (int i = 0; i < INSTANCES; i++) {
+                int[][] partial = randomPartial(n, blankFraction, random);
+                backtracking[i] = time(LatinSolver.BACKTRACKING, partial, random);
+                dancingLinks[i] = time(LatinSolver.DANCING_LINKS, partial, random);
+            }
+            System.out.printf("%4d  %18.3f  %18.3f%n", n, median(backtracking), median(dancingLinks));
+        }
+    }
+
+    private static double time(LatinSolver solver, int[][] partial, Random random) {
+        long start = System.nanoTime();
+        int[][] grid = LatinFill.generateFromPartial(copy(partial), null, solver, random);
+        long elapsed = System.nanoTime() - start;
+        if (grid.length != partial.length) {
+            throw new IllegalStateException("Unexpected grid size");
+        }
+        return elapsed / 1_000_000.0;
+    }
+
+    // Permuted cyclic square with a random share of cells set to -1
+    private static int[][] randomPartial(int n, double blankFraction, Random random) {
+        int[] symbols = permutation(n, random);
+        int[] rows = permutation(n, random);
+        int[] cols = permutation(n, random);
+        int[][] partial = new int[n][n];
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                partial[r][c] = random.nextDouble() < blankFraction ? -1 : symbols[(rows[r] + cols[c]) % n];
+            }
+        }
+        return partial;
+    }
+
+    private static int[] permutation(int n, Random random) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) a[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = a[i]; a[i] = a[j]; a[j] = t;
+        }
+        return a;
+    }
+
+    private static int[][] copy(int[][] grid) {
+        int[][] out = new int[grid.length][];
+        for (int r = 0; r < grid.length; r++) {
+            out[r] = grid[r].clone();
+        }
+        return out;
+    }
+
+    private static double median(double[] samples) {
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
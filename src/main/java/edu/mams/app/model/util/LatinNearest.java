@@ -0,0 +1,170 @@
+package edu.mams.app.model.util;
+
+import java.util.Arrays;
+
+/**
+ * Finds the completion of a partial Latin square or rectangle that differs least from a target
+ * grid.
+ * <p>
+ * The search is a branch and bound over the empty cells. It fills the cell with the fewest
+ * candidates first and tries that cell's target value before any other, so the first
+ * completion found is usually close and later branches are cut early. A branch is cut when
+ * the changes made so far, plus the empty cells whose target value is no longer available,
+ * cannot beat the best completion found, or when some column can no longer place one of its
+ * missing values.
+ * <p>
+ * The search stops after a node budget. The closest completion found by then is kept, but it
+ * is no longer proven to be the closest.
+ */
+final class LatinNearest {
+    private final int n;
+    private final int cols;
+    private final int[][] grid;
+    private final int[][] target;
+    private final long[] rowFree;   // values a row may still take: unused and not forbidden
+    private final long[] colFree;   // values a column still lacks
+    private final long nodeBudget;
+    private long nodes;
+    private int[][] best;
+    private int bestChanges = Integer.MAX_VALUE;
+
+    /**
+     * Creates a search over a validated grid.
+     *
+     * @param grid n×cols grid using -1 for empty cells; filled cells stay as they are
+     * @param forbidden optional n×n row/value matrix
+     * @param target n×cols grid to stay close to; -1 cells count as changed whatever they get
+     * @param nodeBudget search nodes to visit before giving up on a proof of minimality
+     */
+    LatinNearest(int[][] grid, boolean[][] forbidden, int[][] target, long nodeBudget) {
+        this.n = grid.length;
+        this.cols = grid[0].length;
+        if (n > 64) throw new IllegalArgumentException("closest completion supports n ≤ 64");
+        if (target.length != n) throw new IllegalArgumentException("target must match the grid");
+        for (int[] row : target) {
+            if (row.length != cols) throw new IllegalArgumentException("target must match the grid");
+        }
+        this.grid = grid;
+        this.target = target;
+        this.nodeBudget = nodeBudget;
+
+        long all = n == 64 ? -1L : (1L << n) - 1;
+        rowFree = new long[n];
+        colFree = new long[cols];
+        Arrays.fill(colFree, all);
+        for (int r = 0; r < n; r++) {
+            long free = all;
+            if (forbidden != null) {
+                for (int v = 0; v < n; v++) {
+                    if (forbidden[r][v]) free &= ~(1L << v);
+                }
+            }
+            for (int c = 0; c < cols; c++) {
+                if (grid[r][c] != -1) {
+                    free &= ~(1L << grid[r][c]);
+                    colFree[c] &= ~(1L << grid[r][c]);
+                }
+            }
+            rowFree[r] = free;
+        }
+    }
+
+    /**
+     * Runs the search.
+     *
+     * @return closest completion found, or {@code null} when none was found
+     */
+    int[][] find() {
+        int fixedChanges = 0;
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (grid[r][c] != -1 && grid[r][c] != target[r][c]) fixedChanges++;
+            }
+        }
+        search(fixedChanges);
+        return best;
+    }
+
+    /**
+     * Tells whether the last {@link #find()} finished within the node budget, so its result
+     * is the closest completion, or {@code null} only when the grid has none.
+     *
+     * @return true when the search was exhaustive
+     */
+    boolean exhaustive() {
+        return nodes <= nodeBudget;
+    }
+
+    private void search(int changes) {
+        if (++nodes > nodeBudget) return;
+        int pickRow = -1;
+        int pickCol = -1;
+        int pickCount = Integer.MAX_VALUE;
+        int bound = changes;
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (grid[r][c] != -1) continue;
+                long candidates = rowFree[r] & colFree[c];
+                int count = Long.bitCount(candidates);
+                if (count == 0) return;
+                int want = target[r][c];
+                if (want == -1 || (candidates & (1L << want)) == 0) bound++;
+                if (count < pickCount) {
+                    pickRow = r;
+                    pickCol = c;
+                    pickCount = count;
+                }
+            }
+        }
+        if (bound >= bestChanges) return;
+        if (pickRow == -1) {
+            best = new int[n][];
+            for (int r = 0; r < n; r++) best[r] = grid[r].clone();
+            bestChanges = changes;
+            return;
+        }
+        if (!columnsCanFinish()) return;
+
+        int r = pickRow;
+        int c = pickCol;
+        long candidates = rowFree[r] & colFree[c];
+        int want = target[r][c];
+        if (want != -1 && (candidates & (1L << want)) != 0) {
+            place(r, c, want);
+            search(changes);
+            clear(r, c, want);
+            candidates &= ~(1L << want);
+        }
+        while (candidates != 0 && changes + 1 < bestChanges) {
+            int v = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            place(r, c, v);
+            search(changes + 1);
+            clear(r, c, v);
+        }
+    }
+
+    // Every value a column lacks must still fit one of its empty cells
+    private boolean columnsCanFinish() {
+        for (int c = 0; c < cols; c++) {
+            long reachable = 0;
+            for (int r = 0; r < n; r++) {
+                if (grid[r][c] == -1) reachable |= rowFree[r];
+            }
+            if ((colFree[c] & ~reachable) != 0) return false;
+        }
+        return true;
+    }
+
+    private void place(int r, int c, int v) {
+        grid[r][c] = v;
+        rowFree[r] &= ~(1L << v);
+        colFree[c] &= ~(1L << v);
+    }
+
+    private void clear(int r, int c, int v) {
+        grid[r][c] = -1;
+        rowFree[r] |= 1L << v;
+        colFree[c] |= 1L << v;
+    }
+}
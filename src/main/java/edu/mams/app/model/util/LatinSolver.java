@@ -0,0 +1,54 @@
+package edu.mams.app.model.util;
+
+import java.util.random.RandomGenerator;
+
+
+/**
+ * Strategy for completing a validated partial Latin square or n×cols rectangle.
+ * <p>
+ * Implementations fill every empty cell (value -1) so that each column is a permutation of
+ * 0..n-1, each row holds distinct values, and no row receives a value it forbids.
+ */
+@FunctionalInterface
+public interface LatinSolver {
+    /**
+     * MRV search on the bitset engine with singles propagation and Luby restarts.
+     */
+    LatinSolver BACKTRACKING = LatinFill::fillLatinSquare;
+
+    /**
+     * Knuth's Algorithm X over a Dancing Links exact-cover encoding.
+     */
+    LatinSolver DANCING_LINKS = DancingLinks::completeLatin;
+
+    /**
+     * Returns a solver that races one randomized backtracking search per available core and
+     * keeps the first result.
+     *
+     * @return portfolio solver on the common fork/join pool
+     */
+    static LatinSolver portfolio() {
+        return portfolio(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Returns a solver that races {@code searches} randomized backtracking searches and keeps
+     * the first result; the others are cancelled cooperatively.
+     *
+     * @param searches number of searches to race
+     * @return portfolio solver on the common fork/join pool
+     */
+    static LatinSolver portfolio(int searches) {
+        return new PortfolioLatinSolver(searches);
+    }
+
+    /**
+     * Completes the grid in place.
+     *
+     * @param grid n×cols grid using -1 for empty cells; holds the completion on success
+     * @param forbidden optional n×n matrix; {@code forbidden[r][v]} keeps v out of row r
+     * @param rnd source used to vary the completion
+     * @return {@code true} when completed, {@code false} when no completion exists
+     */
+    boolean complete(int[][] grid, boolean[][] forbidden, RandomGenerator rnd);
+}
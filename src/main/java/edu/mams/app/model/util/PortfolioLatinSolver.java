@@ -0,0 +1,101 @@
+package edu.mams.app.model.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.random.RandomGenerator;
+
+/**
+ * Runs several independently seeded backtracking searches in parallel and keeps the first
+ * one that finishes.
+ * <p>
+ * Backtracking time on hard instances is heavy-tailed, so racing a few random candidate orders
+ * usually beats waiting on one. A search that exhausts its space proves infeasibility for all
+ * of them, so it also ends the race. Losing searches poll a shared flag and stop on their own.
+ * <p>
+ * Seeds for the searches are drawn from the caller's generator, but which search wins depends
+ * on thread timing, so results are not reproducible from a seed.
+ */
+final class PortfolioLatinSolver implements LatinSolver {
+    private static final int[][] NO_COMPLETION = new int[0][];
+
+    private final int searches;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a portfolio on the common fork/join pool.
+     *
+     * @param searches number of searches to race
+     */
+    PortfolioLatinSolver(int searches) {
+        this(searches, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a portfolio on the given executor.
+     *
+     * @param searches number of searches to race
+     * @param executor executor the searches run on
+     */
+    PortfolioLatinSolver(int searches, ExecutorService executor) {
+        if (searches < 1) throw new IllegalArgumentException("searches must be ≥ 1");
+        this.searches = searches;
+        this.executor = executor;
+    }
+
+    @Override
+    public boolean complete(int[][] grid, boolean[][] forbidden, RandomGenerator rnd) {
+        AtomicBoolean finished = new AtomicBoolean();
+        List<Callable<int[][]>> tasks = new ArrayList<>(searches);
+        for (int i = 0; i < searches; i++) {
+            long seed = rnd.nextLong();
+            tasks.add(() -> runSearch(grid, forbidden, new SplittableRandom(seed), finished));
+        }
+
+        int[][] winner;
+        try {
+            winner = executor.invokeAny(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while completing Latin square", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Every portfolio search failed", e.getCause());
+        } finally {
+            finished.set(true);
+        }
+
+        if (winner == NO_COMPLETION) return false;
+        for (int r = 0; r < grid.length; r++) {
+            System.arraycopy(winner[r], 0, grid[r], 0, grid[r].length);
+        }
+        return true;
+    }
+
+    private static int[][] runSearch(int[][] grid, boolean[][] forbidden, RandomGenerator rnd, AtomicBoolean finished) {
+        int[][] copy = new int[grid.length][];
+        for (int r = 0; r < grid.length; r++) {
+            copy[r] = grid[r].clone();
+        }
+
+        LatinEngine engine = new LatinEngine(copy, forbidden, rnd);
+        LatinEngine.Outcome outcome = engine.solve(finished::get, LatinEngine.RESTART_UNIT);
+        switch (outcome) {
+            case SOLVED -> {
+                finished.set(true);
+                engine.copyInto(copy);
+                return copy;
+            }
+            case EXHAUSTED -> {
+                finished.set(true);
+                return NO_COMPLETION;
+            }
+            default -> throw new CancellationException("Another search finished first");
+        }
+    }
+}
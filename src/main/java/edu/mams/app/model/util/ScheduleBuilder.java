@@ -10,27 +10,110 @@ import edu.mams.app.model.schedule.*;
 import java.time.LocalDate;
 import java.time.temporal.IsoFields;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.CancellationException;
+import java.util.function.BiPredicate;
+import java.util.function.IntFunction;
+import java.util.random.RandomGenerator;
 
 /**
  * Builds schedules from templates, class lists, and teacher requests.
  * <p>
- * Supports both standard schedules and split-course layouts.
+ * Supports both standard schedules and split-course layouts. Instances work from an immutable
+ * {@link BuilderConfig} and can generate concurrently; the static methods are thin wrappers
+ * over an instance holding the process-wide configuration set through the static setters.
  */
 public class ScheduleBuilder {
     private record TemplateExpansion(List<ScheduleEntry> entries, List<Assignment> classes) {
     }
 
-    private static Course splitClass = null;
-    private static Section splitSection = null;
-    private static List<HalfSection> halfSections = new ArrayList<>(List.of(new HalfSection("Intermediate", new Section("G")), new HalfSection("Advanced", new Section("G"))));
-    private static String peGroupAName = "Group A";
-    private static String peGroupBName = "Group B";
-    private static String peActivityOne = "Gym";
-    private static String peActivityTwo = "Zumba";
+    /**
+     * A day expanded from its template and reduced to a partial block-by-column grid, so any
+     * solver can complete it before {@link #finishDay} writes the result into the entries.
+     *
+     * @param model day compiled to block, section and class ids
+     * @param requests day requests
+     * @param forbidden block-by-class avoid-time matrix
+     * @param partial grid with split presets, -1 elsewhere
+     * @param split split-course placement, or {@code null} for a no-split day
+     */
+    record DayProblem(DayModel model, List<TeacherRequest> requests, boolean[][] forbidden, int[][] partial,
+                      SplitLayout split) {
+        List<ScheduleEntry> entries() {
+            return model.entries();
+        }
+
+        List<Section> sections() {
+            return model.sections();
+        }
+
+        List<Assignment> classes() {
+            return model.classes();
+        }
+    }
+
+    /**
+     * Outcome of {@link #repair(Day)}.
+     *
+     * @param entries repaired entries
+     * @param changedCells grid cells holding a different class than before the repair
+     * @param minimal false when the search for the fewest changes ran out of budget
+     */
+    public record Repair(List<ScheduleEntry> entries, int changedCells, boolean minimal) {
+    }
+
+    // A day's current grid and the split courses sitting in it
+    private record PresetGrid(int[][] grid, List<int[]> splitSlots, List<SplitCourse> splitCourses) {
+    }
+
+    /**
+     * Blocks holding each half of the split section, and the classes taught in them.
+     */
+    record SplitLayout(int block1, int block2, int langIndex, int splitIndex) {
+    }
+
+    // Split placements as {first half, second half} counted back from the last class block
+    private static final int[][] SPLIT_BLOCKS = {{0, 1}, {1, 0}, {1, 2}, {2, 1}, {2, 3}, {3, 2}};
+
+    // Search nodes a repair may spend looking for the fewest changes, well under a second
+    private static final long REPAIR_NODE_BUDGET = 1_000_000;
+
+    private static volatile BuilderConfig globalConfig = BuilderConfig.defaults();
+
+    private final BuilderConfig config;
+
+    /**
+     * Creates a builder bound to one immutable configuration. A builder holds no other state,
+     * so one instance may serve several threads at once.
+     *
+     * @param config split-course and PE settings
+     */
+    public ScheduleBuilder(BuilderConfig config) {
+        if (config == null) throw new IllegalArgumentException("config must not be null");
+        this.config = config;
+    }
+
+    /**
+     * Returns the configuration used by the static methods.
+     *
+     * @return current process-wide configuration
+     */
+    public static BuilderConfig getConfig() {
+        return globalConfig;
+    }
+
+    /**
+     * Replaces the configuration used by the static methods.
+     *
+     * @param config new process-wide configuration
+     */
+    public static synchronized void setConfig(BuilderConfig config) {
+        if (config == null) throw new IllegalArgumentException("config must not be null");
+        globalConfig = config;
+    }
 
     /**
      * Returns the configured half-section pairing used for split courses.
@@ -38,7 +121,7 @@ public class ScheduleBuilder {
      * @return half-section definitions
      */
     public static List<HalfSection> getHalfSections() {
-        return halfSections;
+        return globalConfig.halfSections();
     }
 
     /**
@@ -46,8 +129,8 @@ public class ScheduleBuilder {
      *
      * @param halfSections half-section definitions
      */
-    public static void setHalfSections(List<HalfSection> halfSections) {
-        ScheduleBuilder.halfSections = halfSections;
+    public static synchronized void setHalfSections(List<HalfSection> halfSections) {
+        globalConfig = globalConfig.withHalfSections(halfSections);
     }
 
     /**
@@ -56,7 +139,7 @@ public class ScheduleBuilder {
      * @return split section
      */
     public static Section getSplitSection() {
-        return splitSection;
+        return globalConfig.splitSection();
     }
 
     /**
@@ -64,8 +147,8 @@ public class ScheduleBuilder {
      *
      * @param splitSection split section
      */
-    public static void setSplitSection(Section splitSection) {
-        ScheduleBuilder.splitSection = splitSection;
+    public static synchronized void setSplitSection(Section splitSection) {
+        globalConfig = globalConfig.withSplitSection(splitSection);
     }
 
     /**
@@ -74,7 +157,7 @@ public class ScheduleBuilder {
      * @return configured split course
      */
     public static Course getSplitClass() {
-        return splitClass;
+        return globalConfig.splitClass();
     }
 
     /**
@@ -82,8 +165,8 @@ public class ScheduleBuilder {
      *
      * @param splitClass split course
      */
-    public static void setSplitClass(Course splitClass) {
-        ScheduleBuilder.splitClass = splitClass;
+    public static synchronized void setSplitClass(Course splitClass) {
+        globalConfig = globalConfig.withSplitClass(splitClass);
     }
 
     /**
@@ -92,7 +175,7 @@ public class ScheduleBuilder {
      * @return group A name
      */
     public static String getPeGroupAName() {
-        return peGroupAName;
+        return globalConfig.peGroupAName();
     }
 
     /**
@@ -101,7 +184,7 @@ public class ScheduleBuilder {
      * @return group B name
      */
     public static String getPeGroupBName() {
-        return peGroupBName;
+        return globalConfig.peGroupBName();
     }
 
     /**
@@ -110,7 +193,7 @@ public class ScheduleBuilder {
      * @return primary PE activity
      */
     public static String getPeActivityOne() {
-        return peActivityOne;
+        return globalConfig.peActivityOne();
     }
 
     /**
@@ -119,7 +202,7 @@ public class ScheduleBuilder {
      * @return secondary PE activity
      */
     public static String getPeActivityTwo() {
-        return peActivityTwo;
+        return globalConfig.peActivityTwo();
     }
 
     /**
@@ -130,19 +213,8 @@ public class ScheduleBuilder {
      * @param activityOne activity used on non-swap weeks
      * @param activityTwo activity used on swap weeks
      */
-    public static void setPeDefaults(String groupAName, String groupBName, String activityOne, String activityTwo) {
-        if (groupAName != null && !groupAName.isBlank()) {
-            peGroupAName = groupAName.trim();
-        }
-        if (groupBName != null && !groupBName.isBlank()) {
-            peGroupBName = groupBName.trim();
-        }
-        if (activityOne != null && !activityOne.isBlank()) {
-            peActivityOne = activityOne.trim();
-        }
-        if (activityTwo != null && !activityTwo.isBlank()) {
-            peActivityTwo = activityTwo.trim();
-        }
+    public static synchronized void setPeDefaults(String groupAName, String groupBName, String activityOne, String activityTwo) {
+        globalConfig = globalConfig.withPeDefaults(groupAName, groupBName, activityOne, activityTwo);
     }
 
     /**
@@ -153,20 +225,110 @@ public class ScheduleBuilder {
      * @return generated entries for the day
      */
     public static List<ScheduleEntry> buildNewSplitSchedule(String templateName, Day day) {
+        return buildNewSplitSchedule(templateName, day, GenerationContext.defaults());
+    }
+
+    /**
+     * Builds a split-course schedule, drawing every random choice from the context.
+     *
+     * @param templateName name of day template to expand
+     * @param day day context including classes, sections and requests
+     * @param context randomness and solver for this generation
+     * @return generated entries for the day
+     */
+    public static List<ScheduleEntry> buildNewSplitSchedule(String templateName, Day day, GenerationContext context) {
+        return new ScheduleBuilder(globalConfig).buildSplit(templateName, day, context);
+    }
+
+    /**
+     * Generates a day in whichever mode it is in, split or not.
+     *
+     * @param templateName name of day template to expand
+     * @param day day context including classes, sections and requests
+     * @param context randomness and solver for this generation
+     * @return generated entries for the day
+     */
+    public List<ScheduleEntry> generate(String templateName, Day day, GenerationContext context) {
+        return day.isSplit() ? buildSplit(templateName, day, context) : buildNoSplit(templateName, day, context);
+    }
+
+    /**
+     * Builds a schedule where one section contains a two-block split course, using this
+     * builder's configuration.
+     *
+     * @param templateName name of day template to expand
+     * @param day day context including classes, sections and requests
+     * @param context randomness and solver for this generation
+     * @return generated entries for the day
+     */
+    public List<ScheduleEntry> buildSplit(String templateName, Day day, GenerationContext context) {
+        List<String> reasons = new ArrayList<>();
+        for (DayProblem problem : prepareSplitCandidates(templateName, day, context.random())) {
+            List<String> conflicts = describeConflicts(problem.partial(), problem.forbidden(), problem.model(), problem.requests());
+            if (conflicts.isEmpty()) {
+                int[][] grid = null;
+                try {
+                    grid = LatinFill.generateFromPartial(problem.partial(), problem.forbidden(), context.solver(), context.random());
+                } catch (CancellationException e) {
+                    // Interrupted, not infeasible; no other placement should be tried
+                    throw e;
+                } catch (IllegalStateException e) {
+                    conflicts = List.of(e.getMessage());
+                }
+                if (grid != null) {
+                    return finishDay(problem, grid);
+                }
+            }
+            reasons.add(describeSplitPlacement(problem, conflicts));
+        }
+        throw noSplitPlacement(reasons);
+    }
+
+    /**
+     * Prepares every way a day can be set up before solving: one problem for a day without a
+     * split, and one per split placement that passes the pre-checks, in random order.
+     *
+     * @param templateName day template name
+     * @param day day context
+     * @param random source for the order of split placements
+     * @return day problems, never empty
+     * @throws IllegalStateException when no split placement passes the pre-checks
+     */
+    List<DayProblem> prepareDayCandidates(String templateName, Day day, RandomGenerator random) {
+        if (!day.isSplit()) {
+            return List.of(prepareNoSplitDay(templateName, day));
+        }
+        List<DayProblem> feasible = new ArrayList<>();
+        List<String> reasons = new ArrayList<>();
+        for (DayProblem problem : prepareSplitCandidates(templateName, day, random)) {
+            List<String> conflicts = describeConflicts(problem.partial(), problem.forbidden(), problem.model(), problem.requests());
+            if (conflicts.isEmpty()) {
+                feasible.add(problem);
+            } else {
+                reasons.add(describeSplitPlacement(problem, conflicts));
+            }
+        }
+        if (feasible.isEmpty()) {
+            throw noSplitPlacement(reasons);
+        }
+        return feasible;
+    }
+
+    // One day problem per valid placement of the two split blocks, in random order
+    private List<DayProblem> prepareSplitCandidates(String templateName, Day day, RandomGenerator random) {
         List<TeacherRequest> requests = day.getRequests();
         List<Section> sections = day.getSections();
         TemplateExpansion expansion = expandTemplate(templateName, requests, day.getClasses(), day.getDate());
-        List<Assignment> classes = expansion.classes();
-        List<ScheduleEntry> entries = expansion.entries();
+        DayModel model = new DayModel(expansion.entries(), sections, expansion.classes());
         Assignment partnerAssignment = day.getSplitCourse();
         if (!(partnerAssignment instanceof Course partnerSplit)) {
             throw new IllegalStateException("Split mode requires a valid partner split course.");
         }
 
-        boolean[][] forbidden = getForbidden(entries, classes, requests);
+        boolean[][] forbidden = getForbidden(model, requests);
 
-        int splitIndex = classes.indexOf(partnerSplit);
-        int langIndex = classes.indexOf(splitClass);
+        int splitIndex = model.classId(partnerSplit);
+        int langIndex = model.classId(config.splitClass());
         if (splitIndex < 0) {
             throw new IllegalStateException("Partner split course must be included in the selected classes for the day.");
         }
@@ -174,68 +336,80 @@ public class ScheduleBuilder {
             throw new IllegalStateException("Primary split course must be included in the selected classes for the day.");
         }
 
+        int numClassBlocks = model.blockCount();
+        int[] configs = new int[splitConfigCount(numClassBlocks)];
+        for (int i = 0; i < configs.length; i++) {
+            configs[i] = i;
+        }
+        for (int i = configs.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = configs[i];
+            configs[i] = configs[j];
+            configs[j] = tmp;
+        }
 
-        int[][] partial = getEmptyPartial(entries);
-        int splitConfig = pickSplitConfig(partial.length);
-        int splitBlock1, splitBlock2;
-        switch (splitConfig) {
-            case (0) -> {
-                splitBlock1 = partial.length - 1;
-                splitBlock2 = partial.length - 2;
-            }
-            case (1) -> {
-                splitBlock1 = partial.length - 2;
-                splitBlock2 = partial.length - 1;
-            }
-            case (2) -> {
-                splitBlock1 = partial.length - 2;
-                splitBlock2 = partial.length - 3;
-            }
-            case (3) -> {
-                splitBlock1 = partial.length - 3;
-                splitBlock2 = partial.length - 2;
-            }
-            case (4) -> {
-                splitBlock1 = partial.length - 3;
-                splitBlock2 = partial.length - 4;
-            }
-            case (5) -> {
-                splitBlock1 = partial.length - 4;
-                splitBlock2 = partial.length - 3;
-            }
-            default -> {
-                throw new IllegalArgumentException("Unknown split configuration: " + splitConfig);
-            }
+        List<DayProblem> candidates = new ArrayList<>();
+        for (int splitConfig : configs) {
+            // Column 3 carries the second half of the split section, so it must exist even when
+            // the day has fewer sections; columns past that would only over-constrain the rows
+            int[][] partial = getEmptyPartial(numClassBlocks, Math.max(sections.size(), 4));
+            int splitBlock1 = numClassBlocks - 1 - SPLIT_BLOCKS[splitConfig][0];
+            int splitBlock2 = numClassBlocks - 1 - SPLIT_BLOCKS[splitConfig][1];
+            setSplitConfig(partial, splitBlock1, langIndex, splitBlock2, splitIndex);
+            candidates.add(new DayProblem(model, requests, forbidden, partial,
+                    new SplitLayout(splitBlock1, splitBlock2, langIndex, splitIndex)));
         }
-        setSplitConfig(partial, splitBlock1, langIndex, splitBlock2, splitIndex);
+        return candidates;
+    }
 
+    private static String describeSplitPlacement(DayProblem problem, List<String> conflicts) {
+        DayModel model = problem.model();
+        SplitLayout split = problem.split();
+        return "Split blocks at " + model.block(split.block1()).getStart() + " and " + model.block(split.block2()).getStart()
+                + ":\n  - " + String.join("\n  - ", conflicts);
+    }
 
-//        int freeBlocks = partial.length - 4;
-//        for (int i = 0; i < freeBlocks; i++) {
-//            partial[i][4+i] = langIndex;
-//        }
+    private static IllegalStateException noSplitPlacement(List<String> reasons) {
+        return new IllegalStateException("The day cannot be scheduled with any split placement:\n- " + String.join("\n- ", reasons));
+    }
 
-        int[][] grid = LatinFill.generateFromPartial(partial, forbidden);
-        fillEntries(entries, sections, classes, grid);
+    private DayProblem prepareNoSplitDay(String templateName, Day day) {
+        List<TeacherRequest> requests = day.getRequests();
+        List<Section> sections = day.getSections();
+        TemplateExpansion expansion = expandTemplate(templateName, requests, day.getClasses(), day.getDate());
+        DayModel model = new DayModel(expansion.entries(), sections, expansion.classes());
 
-        int block = 0;
-        for (ScheduleEntry entry : entries) {
-            if (entry instanceof ClassBlock classBlock) {
-                Map<Section, Assignment> sectionCourses = classBlock.getSectionCourses();
-                for (int i = 0; i < sections.size(); i++) {
-                    if (block == splitBlock1 && i == 1) {
-                        SplitCourse splitCourse = new SplitCourse(Map.of(new HalfSection("Intermediate", sections.get(i)), classes.get(splitIndex), new HalfSection("Advanced", sections.get(i)), classes.get(langIndex)));
-                        sectionCourses.put(sections.get(i), splitCourse);
-                    } else if (block == splitBlock2 && i == 1) {
-                        SplitCourse splitCourse = new SplitCourse(Map.of(halfSections.get(0), classes.get(langIndex), halfSections.get(1), classes.get(splitIndex)));
-                        sectionCourses.put(sections.get(i), splitCourse);
-                    }
-                }
-                classBlock.setSectionCourses(sectionCourses);
-                block++;
-            }
+        boolean[][] forbidden = getForbidden(model, requests);
+        return new DayProblem(model, requests, forbidden,
+                getEmptyPartial(model.blockCount(), sections.size()), null);
+    }
+
+    /**
+     * Writes a solved grid back into the day problem's entries, including split courses.
+     *
+     * @param problem prepared day
+     * @param grid completed grid for the problem's partial
+     * @return generated entries
+     */
+    List<ScheduleEntry> finishDay(DayProblem problem, int[][] grid) {
+        DayModel model = problem.model();
+        model.materialize(grid);
+
+        SplitLayout split = problem.split();
+        if (split == null || model.sectionCount() < 2) {
+            return model.entries();
         }
-        return entries;
+        List<HalfSection> halfSections = config.halfSections();
+        Section splitSection = model.section(1);
+        Assignment lang = model.assignment(split.langIndex());
+        Assignment partner = model.assignment(split.splitIndex());
+        model.block(split.block1()).getSectionCourses().put(splitSection, new SplitCourse(Map.of(
+                new HalfSection("Intermediate", splitSection), partner,
+                new HalfSection("Advanced", splitSection), lang)));
+        model.block(split.block2()).getSectionCourses().put(splitSection, new SplitCourse(Map.of(
+                halfSections.get(0), lang,
+                halfSections.get(1), partner)));
+        return model.entries();
     }
 
     /**
@@ -258,7 +432,7 @@ public class ScheduleBuilder {
      * @return generated entries
      */
     public static List<ScheduleEntry> getScheduleEntries(String templateName, Day day) {
-        return expandTemplate(templateName, day.getRequests(), day.getClasses(), day.getDate()).entries();
+        return getScheduleEntries(templateName, day.getRequests(), day.getClasses(), day.getDate());
     }
 
     /**
@@ -271,61 +445,56 @@ public class ScheduleBuilder {
      * @return generated entries
      */
     public static List<ScheduleEntry> getScheduleEntries(String templateName, List<TeacherRequest> requests, List<Assignment> classes, LocalDate date) {
+        return new ScheduleBuilder(globalConfig).expand(templateName, requests, classes, date);
+    }
+
+    /**
+     * Expands a template with this builder's PE defaults and applies all-school requests
+     * into the nearest class blocks.
+     *
+     * @param templateName day template name
+     * @param requests teacher requests to apply
+     * @param classes assignments available for class blocks
+     * @param date day date used for PE swap behavior
+     * @return generated entries
+     */
+    public List<ScheduleEntry> expand(String templateName, List<TeacherRequest> requests, List<Assignment> classes, LocalDate date) {
         return expandTemplate(templateName, requests, classes, date).entries();
     }
 
-    private static TemplateExpansion expandTemplate(String templateName, List<TeacherRequest> requests, List<Assignment> classes, LocalDate date) {
-        List<ScheduleEntry> entries = new ArrayList<>();
+    private TemplateExpansion expandTemplate(String templateName, List<TeacherRequest> requests, List<Assignment> classes, LocalDate date) {
         List<Assignment> availableClasses = copyClasses(classes);
 
-        DayTemplate template = TemplateManager.getTemplate(templateName);
-        if (template == null) {
-            return new TemplateExpansion(entries, availableClasses);
+        TemplateLayout layout = TemplateManager.getLayout(templateName);
+        if (layout == null) {
+            return new TemplateExpansion(new ArrayList<>(), availableClasses);
         }
 
-        for (BlockDefinition def : template.getBlocks()) {
-            switch (def.getType()) {
-                case "ClassBlock" -> entries.add(new ClassBlock(def.getStart(), def.getLength(), new HashMap<>()));
-                case "PEBlock" -> entries.add(buildDefaultPEBlock(def, date));
-                case "AllSchoolEvent" -> {
-                    if (isPEDefinition(def)) {
-                        entries.add(buildDefaultPEBlock(def, date));
-                    } else {
-                        entries.add(new AllSchoolBlock(def.getStart(), def.getLength(), new Event(def.getLabel())));
-                    }
-                }
-            }
+        List<ScheduleEntry> entries = new ArrayList<>(layout.getSlots().size());
+        for (TemplateLayout.Slot slot : layout.getSlots()) {
+            entries.add(switch (slot.type()) {
+                case CLASS -> new ClassBlock(slot.start(), slot.length(), new HashMap<>());
+                case PE -> buildDefaultPEBlock(slot, date);
+                case EVENT -> new AllSchoolBlock(slot.start(), slot.length(), new Event(slot.label()));
+            });
         }
 
         if (requests == null) {
             return new TemplateExpansion(entries, availableClasses);
         }
 
+        // Class blocks by start time; a block taken by a request stops being a candidate
+        BlockIndex classBlocks = null;
         for (TeacherRequest request : requests) {
             if (request instanceof AllSchoolRequest allSchoolRequest) {
-                int bestIndex = -1;
-                long bestDistance = Long.MAX_VALUE;
-
-                for (int i = 0; i < entries.size(); i++) {
-                    ScheduleEntry entry = entries.get(i);
-                    if (!(entry instanceof ClassBlock)) {
-                        continue;
-                    }
-
-                    if (entry.getStart().equals(allSchoolRequest.getStartTime())) {
-                        bestIndex = i;
-                        break;
-                    }
-
-                    long distance = Math.abs(entry.getStart().toSecondOfDay() - allSchoolRequest.getStartTime().toSecondOfDay());
-                    if (distance < bestDistance) {
-                        bestDistance = distance;
-                        bestIndex = i;
-                    }
+                if (classBlocks == null) {
+                    classBlocks = BlockIndex.ofClassSlots(layout);
                 }
+                int bestIndex = classBlocks.nearestStart(BlockIndex.minuteOf(allSchoolRequest.getStartTime()));
 
                 if (bestIndex >= 0) {
                     entries.set(bestIndex, new AllSchoolBlock(allSchoolRequest));
+                    classBlocks.remove(bestIndex);
                     availableClasses.remove(allSchoolRequest.getAssignment());
                 }
             }
@@ -333,12 +502,12 @@ public class ScheduleBuilder {
         return new TemplateExpansion(entries, availableClasses);
     }
 
-    private static boolean[][] getForbidden(List<ScheduleEntry> entries, List<Assignment> classes, List<TeacherRequest> requests) {
-        int numClassBlocks = getNumClassBlocks(entries);
+    private static boolean[][] getForbidden(DayModel model, List<TeacherRequest> requests) {
+        int numClassBlocks = model.blockCount();
 
         boolean[][] forbidden = new boolean[numClassBlocks][numClassBlocks];
 
-        if (classes.size() != numClassBlocks) {
+        if (model.classCount() != numClassBlocks) {
             throw new IllegalStateException("classes does not match available class blocks");
         }
 
@@ -348,48 +517,149 @@ public class ScheduleBuilder {
 
         for (TeacherRequest request : requests) {
             if (request instanceof AvoidTimeRequest avoidTimeRequest) {
-                int a = classes.indexOf(avoidTimeRequest.getAssignment());
+                int a = model.classId(avoidTimeRequest.getAssignment());
                 if (a < 0) {
                     continue;
                 }
-                int block = 0;
-                for (ScheduleEntry entry : entries) {
-                    if (entry instanceof ClassBlock classBlock) {
-                        if (classBlock.intersects(avoidTimeRequest)) {
-                            forbidden[block][a] = true;
-                        }
-                        block++;
-                    }
-                }
+                int start = BlockIndex.minuteOf(avoidTimeRequest.getStartTime());
+                int end = start + BlockIndex.minutesOf(avoidTimeRequest.getLength());
+                model.blockIndex().forEachOverlap(start, end, block -> forbidden[block][a] = true);
             }
         }
         return forbidden;
     }
 
-    private static int[][] getEmptyPartial(List<ScheduleEntry> entries) {
-        int numClassBlocks = getNumClassBlocks(entries);
-        int[][] partial = new int[numClassBlocks][numClassBlocks];
-        for (int i = 0; i < numClassBlocks; i++) {
-            for (int j = 0; j < numClassBlocks; j++) {
-                partial[i][j] = -1;
-            }
+    // Blocks × columns grid of empty cells. Only the columns a day reads are solved for: in a
+    // full square every row would need every class, which no avoid-time request allows.
+    private static int[][] getEmptyPartial(int numClassBlocks, int columns) {
+        int[][] partial = new int[numClassBlocks][Math.min(columns, numClassBlocks)];
+        for (int[] row : partial) {
+            Arrays.fill(row, -1);
         }
         return partial;
     }
 
-    private static int pickSplitConfig(int numClassBlocks) {
-        List<Integer> configs = new ArrayList<>();
-        configs.add(0);
-        configs.add(1);
-        if (numClassBlocks > 2) {
-            configs.add(2);
-            configs.add(3);
+    /**
+     * Runs the Hall's-condition pre-check on a prepared day.
+     *
+     * @param problem prepared day
+     * @throws IllegalStateException naming the conflicting blocks, sections, classes and requests
+     */
+    static void requireFeasible(DayProblem problem) {
+        requireFeasible(problem.partial(), problem.forbidden(), problem.model(), problem.requests());
+    }
+
+    // Runs the pre-checks and reports each conflict by block, section, class and the
+    // avoid-time requests behind it, before any search starts
+    private static void requireFeasible(int[][] partial, boolean[][] forbidden, DayModel model, List<TeacherRequest> requests) {
+        List<String> conflicts = describeConflicts(partial, forbidden, model, requests);
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException("The day cannot be scheduled with the current requests:\n- " + String.join("\n- ", conflicts));
+        }
+    }
+
+    // One sentence per conflict: preset cells the requests forbid, then Hall's-condition violations
+    private static List<String> describeConflicts(int[][] partial, boolean[][] forbidden, DayModel model, List<TeacherRequest> requests) {
+        List<String> lines = new ArrayList<>();
+        for (int r = 0; r < partial.length; r++) {
+            for (int v : partial[r]) {
+                if (v != -1 && forbidden[r][v]) {
+                    int block = r;
+                    String line = model.assignment(v).getName() + " is placed in the block at " + model.block(r).getStart()
+                            + ", where it is not allowed.";
+                    lines.add(line + involvedRequests(model, requests, forbidden, (b, a) -> b == block && a == v));
+                }
+            }
+        }
+        if (!lines.isEmpty()) {
+            return lines;
+        }
+
+        List<Section> sections = model.sections();
+        for (LatinFeasibility.Conflict conflict : LatinFeasibility.check(partial, forbidden)) {
+            int[] members = conflict.members();
+            int[] options = conflict.options();
+            StringBuilder line = new StringBuilder();
+            switch (conflict.kind()) {
+                case ROW -> line.append("Block at ").append(model.block(conflict.line()).getStart())
+                        .append(" needs ").append(members.length).append(" different classes for sections ")
+                        .append(names(members, i -> sectionLabel(sections, i)))
+                        .append(", but only ").append(names(options, i -> model.assignment(i).getName()))
+                        .append(" are allowed.");
+                case COLUMN -> line.append("Section ").append(sectionLabel(sections, conflict.line()))
+                        .append(" needs ").append(members.length).append(" different classes in the blocks at ")
+                        .append(names(members, i -> model.block(i).getStart().toString()))
+                        .append(", but only ").append(names(options, i -> model.assignment(i).getName()))
+                        .append(" are allowed.");
+                case VALUE -> line.append(model.assignment(conflict.line()).getName())
+                        .append(" must meet sections ").append(names(members, i -> sectionLabel(sections, i)))
+                        .append(" in ").append(members.length).append(" different blocks, but only the blocks at ")
+                        .append(names(options, i -> model.block(i).getStart().toString()))
+                        .append(" are allowed.");
+            }
+            line.append(involvedRequests(model, requests, forbidden, (b, a) -> switch (conflict.kind()) {
+                case ROW -> b == conflict.line();
+                case COLUMN -> Arrays.binarySearch(members, b) >= 0;
+                case VALUE -> a == conflict.line();
+            }));
+            lines.add(line.toString());
         }
+        return lines;
+    }
+
+    // " Requests involved: ..." for the avoid-time requests forbidding a touched block and class
+    private static String involvedRequests(DayModel model, List<TeacherRequest> requests, boolean[][] forbidden,
+                                           BiPredicate<Integer, Integer> touches) {
+        List<String> involved = new ArrayList<>();
+        for (TeacherRequest request : requests == null ? List.<TeacherRequest>of() : requests) {
+            if (!(request instanceof AvoidTimeRequest avoidTimeRequest)) {
+                continue;
+            }
+            int a = model.classId(avoidTimeRequest.getAssignment());
+            if (a < 0) {
+                continue;
+            }
+            for (int b = 0; b < model.blockCount(); b++) {
+                if (forbidden[b][a] && touches.test(b, a)) {
+                    involved.add(describeRequest(avoidTimeRequest));
+                    break;
+                }
+            }
+        }
+        return involved.isEmpty() ? "" : " Requests involved: " + String.join("; ", involved) + ".";
+    }
+
+    // Columns past the sections hold the second half of a split section two columns to the left
+    private static String sectionLabel(List<Section> sections, int column) {
+        return column < sections.size()
+                ? sections.get(column).toString()
+                : sections.get(column - 2) + " (second half)";
+    }
+
+    private static String names(int[] indices, IntFunction<String> name) {
+        if (indices.length == 0) {
+            return "none";
+        }
+        List<String> names = new ArrayList<>();
+        for (int i : indices) {
+            names.add(name.apply(i));
+        }
+        return String.join(", ", names);
+    }
+
+    private static String describeRequest(AvoidTimeRequest request) {
+        String teacher = request.getTeacher() == null ? "A teacher" : request.getTeacher().getName();
+        String text = teacher + " avoids " + request.getAssignment().getName() + " at " + request.getStartTime();
+        return request.getReason() == null || request.getReason().isBlank()
+                ? text
+                : text + " (" + request.getReason() + ")";
+    }
+
+    private static int splitConfigCount(int numClassBlocks) {
         if (numClassBlocks > 3) {
-            configs.add(4);
-            configs.add(5);
+            return 6;
         }
-        return configs.get(ThreadLocalRandom.current().nextInt(configs.size()));
+        return numClassBlocks > 2 ? 4 : 2;
     }
 
     private static void setSplitConfig(int[][] partial, int splitBlock1, int langIndex, int splitBlock2, int splitIndex) {
@@ -399,20 +669,6 @@ public class ScheduleBuilder {
         partial[splitBlock2][3] = langIndex;
     }
 
-    private static void fillEntries(List<ScheduleEntry> entries, List<Section> sections, List<Assignment> classes, int[][] grid) {
-        int block = 0;
-        for (ScheduleEntry entry : entries) {
-            if (entry instanceof ClassBlock classBlock) {
-                Map<Section, Assignment> sectionCourses = new HashMap<>();
-                for (int i = 0; i < sections.size(); i++) {
-                    sectionCourses.put(sections.get(i), classes.get(grid[block][i]));
-                }
-                classBlock.setSectionCourses(sectionCourses);
-                block++;
-            }
-        }
-    }
-
     private static int getNumClassBlocks(List<ScheduleEntry> entries) {
         if (entries == null) {
             return 0;
@@ -434,18 +690,63 @@ public class ScheduleBuilder {
      * @return generated entries
      */
     public static List<ScheduleEntry> buildNewNoSplitSchedule(String templateName, Day day) {
-        List<TeacherRequest> requests = day.getRequests();
-        List<Section> sections = day.getSections();
-        TemplateExpansion expansion = expandTemplate(templateName, requests, day.getClasses(), day.getDate());
-        List<Assignment> classes = expansion.classes();
-        List<ScheduleEntry> entries = expansion.entries();
+        return buildNewNoSplitSchedule(templateName, day, GenerationContext.defaults());
+    }
+
+    /**
+     * Builds a schedule without split courses, drawing every random choice from the context.
+     *
+     * @param templateName day template name
+     * @param day day context
+     * @param context randomness for this generation
+     * @return generated entries
+     */
+    public static List<ScheduleEntry> buildNewNoSplitSchedule(String templateName, Day day, GenerationContext context) {
+        return new ScheduleBuilder(globalConfig).buildNoSplit(templateName, day, context);
+    }
+
+    /**
+     * Builds a schedule without split courses, using this builder's configuration.
+     *
+     * @param templateName day template name
+     * @param day day context
+     * @param context randomness for this generation
+     * @return generated entries
+     */
+    public List<ScheduleEntry> buildNoSplit(String templateName, Day day, GenerationContext context) {
+        DayProblem problem = prepareNoSplitDay(templateName, day);
+        requireFeasible(problem);
 
-        boolean[][] forbidden = getForbidden(entries, classes, requests);
+        int[][] grid = LatinFill.generate(problem.classes().size(), problem.sections().size(), problem.forbidden(), context.random());
+        return finishDay(problem, grid);
+    }
 
-        int[][] grid = LatinFill.generate(classes.size(), sections.size(), forbidden);
+    /**
+     * Counts the distinct no-split layouts a day admits under its requests.
+     *
+     * @param templateName day template name
+     * @param day day context
+     * @return number of valid block-by-section assignments
+     */
+    public static long countNoSplitLayouts(String templateName, Day day) {
+        return new ScheduleBuilder(globalConfig).countNoSplit(templateName, day);
+    }
+
+    /**
+     * Counts the distinct no-split layouts a day admits, using this builder's configuration.
+     *
+     * @param templateName day template name
+     * @param day day context
+     * @return number of valid block-by-section assignments
+     */
+    public long countNoSplit(String templateName, Day day) {
+        List<TeacherRequest> requests = day.getRequests();
+        TemplateExpansion expansion = expandTemplate(templateName, requests, day.getClasses(), day.getDate());
+        DayModel model = new DayModel(expansion.entries(), day.getSections(), expansion.classes());
+        boolean[][] forbidden = getForbidden(model, requests);
 
-        fillEntries(entries, sections, classes, grid);
-        return entries;
+        int[][] partial = getEmptyPartial(model.blockCount(), day.getSections().size());
+        return LatinFill.countCompletions(partial, forbidden);
     }
 
     /**
@@ -455,54 +756,215 @@ public class ScheduleBuilder {
      * @return rebuilt entries
      */
     public static List<ScheduleEntry> buildAroundSchedule(Day day) {
-        List<ScheduleEntry> entries = day.getEntries();
-        List<Assignment> classes = getClassesForExistingEntries(day);
-        List<Section> sections = day.getSections();
+        return buildAroundSchedule(day, GenerationContext.defaults());
+    }
+
+    /**
+     * Rebuilds a day around partially pre-filled entries, drawing every random choice from
+     * the context.
+     *
+     * @param day day with existing entries to preserve where possible
+     * @param context randomness and solver for this generation
+     * @return rebuilt entries
+     */
+    public static List<ScheduleEntry> buildAroundSchedule(Day day, GenerationContext context) {
+        return new ScheduleBuilder(globalConfig).buildAround(day, context);
+    }
+
+    /**
+     * Rebuilds a day around partially pre-filled entries, using this builder's configuration.
+     *
+     * @param day day with existing entries to preserve where possible
+     * @param context randomness and solver for this generation
+     * @return rebuilt entries
+     */
+    public List<ScheduleEntry> buildAround(Day day, GenerationContext context) {
         List<TeacherRequest> requests = day.getRequests();
+        DayModel model = new DayModel(day.getEntries(), day.getSections(), getClassesForExistingEntries(day));
+        boolean[][] forbidden = getForbidden(model, requests);
+        PresetGrid preset = readGrid(model);
+
+        requireFeasible(preset.grid(), forbidden, model, requests);
+        int[][] grid = LatinFill.generateFromPartial(preset.grid(), forbidden, context.solver(), context.random());
+        writeGrid(model, preset, grid);
+        return model.entries();
+    }
 
-        boolean[][] forbidden = getForbidden(entries, classes, requests);
+    /**
+     * Counts the classes in a generated day that meet at a time one of the day's avoid-time
+     * requests rules out.
+     *
+     * @param day generated day
+     * @return number of violating block-by-section cells
+     */
+    public static int countRequestViolations(Day day) {
+        return new ScheduleBuilder(globalConfig).countViolations(day);
+    }
 
-        int[][] partial = getEmptyPartial(entries);
+    /**
+     * Counts violating cells using this builder's configuration.
+     *
+     * @param day generated day
+     * @return number of violating block-by-section cells
+     */
+    public int countViolations(Day day) {
+        DayModel model = new DayModel(day.getEntries(), day.getSections(), getClassesForExistingEntries(day));
+        boolean[][] forbidden = getForbidden(model, day.getRequests());
+        int[][] grid = readGrid(model).grid();
+        int violations = 0;
+        for (int b = 0; b < grid.length; b++) {
+            for (int v : grid[b]) {
+                if (v != -1 && forbidden[b][v]) violations++;
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Repairs a generated day after its avoid-time requests changed.
+     *
+     * @param day generated day whose requests were edited
+     * @return repaired entries and how many cells changed
+     * @throws IllegalStateException when a split course breaks a request or no repair exists
+     */
+    public static Repair repairSchedule(Day day) {
+        return new ScheduleBuilder(globalConfig).repair(day);
+    }
+
+    /**
+     * Repairs a generated day in place, moving as few classes as possible. Cells that break an
+     * avoid-time request, and any empty cells, are unassigned together with a neighbourhood
+     * that widens only when the smaller one cannot be completed: first the rest of the affected
+     * sections' columns, then the affected blocks' rows, then every cell outside split courses.
+     * Each neighbourhood is pre-checked and then completed with the fewest changed cells,
+     * trying every cell's current class first. A search that runs out of budget keeps the
+     * closest completion it found and reports the repair as not minimal.
+     *
+     * @param day generated day whose requests were edited
+     * @return repaired entries and how many cells changed
+     * @throws IllegalStateException when a split course breaks a request or no repair exists
+     */
+    public Repair repair(Day day) {
+        List<TeacherRequest> requests = day.getRequests();
+        DayModel model = new DayModel(day.getEntries(), day.getSections(), getClassesForExistingEntries(day));
+        boolean[][] forbidden = getForbidden(model, requests);
+        PresetGrid preset = readGrid(model);
+        int[][] current = preset.grid();
+        int rows = current.length;
+        int cols = rows == 0 ? 0 : current[0].length;
+
+        boolean[][] fixed = new boolean[rows][cols];
+        for (int[] slot : preset.splitSlots()) {
+            fixed[slot[0]][slot[1]] = true;
+            if (slot[1] + 2 < cols) fixed[slot[0]][slot[1] + 2] = true;
+        }
+
+        boolean[] badRows = new boolean[rows];
+        boolean[] badCols = new boolean[cols];
+        int broken = 0;
+        for (int b = 0; b < rows; b++) {
+            for (int c = 0; c < cols; c++) {
+                int v = current[b][c];
+                if (v != -1 && !forbidden[b][v]) continue;
+                if (fixed[b][c]) {
+                    throw new IllegalStateException("The split course in the block at " + model.block(b).getStart()
+                            + " conflicts with the requests; regenerate the day instead.");
+                }
+                badRows[b] = true;
+                badCols[c] = true;
+                broken++;
+            }
+        }
+        if (broken == 0) {
+            return new Repair(model.entries(), 0, true);
+        }
+
+        List<String> conflicts = List.of();
+        for (int level = 0; level < 3; level++) {
+            int[][] partial = new int[rows][];
+            for (int b = 0; b < rows; b++) {
+                partial[b] = current[b].clone();
+                for (int c = 0; c < cols; c++) {
+                    boolean free = switch (level) {
+                        case 0 -> badCols[c];
+                        case 1 -> badCols[c] || badRows[b];
+                        default -> true;
+                    };
+                    if (free && !fixed[b][c]) partial[b][c] = -1;
+                }
+            }
+            conflicts = describeConflicts(partial, forbidden, model, requests);
+            if (!conflicts.isEmpty()) continue;
+
+            LatinFill.Closest best = LatinFill.closestCompletion(partial, forbidden, current, REPAIR_NODE_BUDGET);
+            if (best != null) {
+                writeGrid(model, preset, best.grid());
+                return new Repair(model.entries(), countChanges(current, best.grid()), best.minimal());
+            }
+        }
+        if (conflicts.isEmpty()) {
+            throw new IllegalStateException("The day cannot be repaired with the current requests: "
+                    + "no arrangement of the classes fits every request.");
+        }
+        throw new IllegalStateException("The day cannot be repaired with the current requests:\n- " + String.join("\n- ", conflicts));
+    }
+
+    private static int countChanges(int[][] before, int[][] after) {
+        int changes = 0;
+        for (int b = 0; b < before.length; b++) {
+            for (int c = 0; c < before[b].length; c++) {
+                if (before[b][c] != after[b][c]) changes++;
+            }
+        }
+        return changes;
+    }
+
+    // Reads a day's class blocks into a grid. Split courses keep their second half two
+    // columns to the right of the section.
+    private PresetGrid readGrid(DayModel model) {
+        List<HalfSection> halfSections = config.halfSections();
+        int blockCount = model.blockCount();
+        int sectionCount = model.sectionCount();
+
+        int columns = sectionCount;
+        for (int b = 0; b < blockCount; b++) {
+            Map<Section, Assignment> sectionCourses = model.block(b).getSectionCourses();
+            for (int i = 0; i < sectionCount; i++) {
+                if (sectionCourses.get(model.section(i)) instanceof SplitCourse) {
+                    columns = Math.max(columns, i + 3);
+                }
+            }
+        }
+        int[][] partial = getEmptyPartial(blockCount, columns);
         List<int[]> splitSlots = new ArrayList<>();
         List<SplitCourse> splitCourses = new ArrayList<>();
 
-        int block = 0;
-        for (ScheduleEntry entry : entries) {
-            if (entry instanceof ClassBlock classBlock) {
-                int sectionCounter = 0;
-                for (Section section : sections) {
-                    Assignment assignment = classBlock.getSectionCourses().get(section);
-                    if (assignment != null) {
-                        if (assignment instanceof Course) {
-                            int classIndex = classes.indexOf(assignment);
-                            partial[block][sectionCounter] = classIndex;
-                        } else if (assignment instanceof SplitCourse splitCourse) {
-                            splitSlots.add(new int[]{block, sectionCounter});
-                            splitCourses.add(splitCourse);
-                            Map<HalfSection, Assignment> halves = splitCourse.getHalfSectionCourses();
-                            if (halves != null) {
-                                Assignment firstCourse = halves.get(halfSections.get(0));
-                                Assignment secondCourse = halves.get(halfSections.get(1));
-                                int firstIndex = classes.indexOf(firstCourse);
-                                int secondIndex = classes.indexOf(secondCourse);
-                                partial[block][sectionCounter] = secondIndex;
-                                partial[block][sectionCounter + 2] = firstIndex;
-                            }
-                        }
+        for (int b = 0; b < blockCount; b++) {
+            Map<Section, Assignment> sectionCourses = model.block(b).getSectionCourses();
+            for (int i = 0; i < sectionCount; i++) {
+                Assignment assignment = sectionCourses.get(model.section(i));
+                if (assignment instanceof Course) {
+                    partial[b][i] = model.classId(assignment);
+                } else if (assignment instanceof SplitCourse splitCourse) {
+                    splitSlots.add(new int[]{b, i});
+                    splitCourses.add(splitCourse);
+                    Map<HalfSection, Assignment> halves = splitCourse.getHalfSectionCourses();
+                    if (halves != null) {
+                        partial[b][i] = model.classId(halves.get(halfSections.get(1)));
+                        partial[b][i + 2] = model.classId(halves.get(halfSections.get(0)));
                     }
-                    sectionCounter++;
                 }
-                block++;
             }
         }
+        return new PresetGrid(partial, splitSlots, splitCourses);
+    }
 
-        int[][] grid = LatinFill.generateFromPartial(partial, forbidden);
-        fillEntries(entries, sections, classes, grid);
-        for (int i = 0; i < splitSlots.size(); i++) {
-            int[] slot = splitSlots.get(i);
-            applySplitCourse(entries, sections, slot[0], slot[1], splitCourses.get(i));
+    private static void writeGrid(DayModel model, PresetGrid preset, int[][] grid) {
+        model.materialize(grid);
+        for (int i = 0; i < preset.splitSlots().size(); i++) {
+            int[] slot = preset.splitSlots().get(i);
+            model.block(slot[0]).getSectionCourses().put(model.section(slot[1]), preset.splitCourses().get(i));
         }
-        return entries;
     }
 
     private static List<Assignment> copyClasses(List<Assignment> classes) {
@@ -546,39 +1008,20 @@ public class ScheduleBuilder {
         return classes;
     }
 
-    private static void applySplitCourse(List<ScheduleEntry> entries, List<Section> sections, int blockIndex, int sectionIndex, SplitCourse splitCourse) {
-        int block = 0;
-        for (ScheduleEntry entry : entries) {
-            if (entry instanceof ClassBlock classBlock) {
-                if (block == blockIndex) {
-                    Map<Section, Assignment> sectionCourses = classBlock.getSectionCourses();
-                    sectionCourses.put(sections.get(sectionIndex), splitCourse);
-                    classBlock.setSectionCourses(sectionCourses);
-                    return;
-                }
-                block++;
-            }
-        }
-    }
-
-    private static PEBlock buildDefaultPEBlock(BlockDefinition def, LocalDate date) {
+    private PEBlock buildDefaultPEBlock(TemplateLayout.Slot def, LocalDate date) {
         boolean swap = isSwapWeek(date);
-        String groupAActivity = swap ? peActivityTwo : peActivityOne;
-        String groupBActivity = swap ? peActivityOne : peActivityTwo;
+        String groupAActivity = swap ? config.peActivityTwo() : config.peActivityOne();
+        String groupBActivity = swap ? config.peActivityOne() : config.peActivityTwo();
         return new PEBlock(
-                def.getStart(),
-                def.getLength(),
-                peGroupAName,
+                def.start(),
+                def.length(),
+                config.peGroupAName(),
                 groupAActivity,
-                peGroupBName,
+                config.peGroupBName(),
                 groupBActivity
         );
     }
 
-    private static boolean isPEDefinition(BlockDefinition def) {
-        return def.getLabel() != null && "PE".equalsIgnoreCase(def.getLabel().trim());
-    }
-
     private static boolean isSwapWeek(LocalDate date) {
         if (date == null) {
             return false;
@@ -0,0 +1,354 @@
+package edu.mams.app.model.util;
+
+import edu.mams.app.model.people.Section;
+import edu.mams.app.model.people.Teacher;
+import edu.mams.app.model.requests.RequestLoader;
+import edu.mams.app.model.requests.TeacherRequest;
+import edu.mams.app.model.schedule.Assignment;
+import edu.mams.app.model.schedule.Course;
+import edu.mams.app.model.schedule.Day;
+import edu.mams.app.model.schedule.Schedule;
+import edu.mams.app.model.schedule.TemplateLayout;
+import edu.mams.app.model.schedule.TemplateManager;
+import edu.mams.app.model.schedule.Week;
+
+import java.io.File;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generates every week of a term in one call instead of one week at a time through the editor.
+ * <p>
+ * School days between the plan's start and end, skipping weekends and closed dates, are
+ * grouped into Monday-to-Friday weeks and numbered in order, continuing from the schedule's
+ * last week the same way the week selector does. Templates follow the rotation one school day
+ * at a time. Each week gets its own split of the caller's context before any work starts, so a
+ * seeded context reproduces the whole term regardless of which thread generates which week.
+ * The weeks then run as a divide-and-conquer task on a {@link ForkJoinPool}, where idle
+ * workers steal the remaining halves of the range. Weeks that generate successfully are added
+ * to the schedule in date order; a week that fails is reported and left out.
+ */
+public final class SemesterGenerator {
+    private final ForkJoinPool pool;
+    private final BuilderConfig config;
+
+    /**
+     * Chooses the classes that meet on a given school day.
+     */
+    @FunctionalInterface
+    public interface DayClasses {
+        /**
+         * Returns the classes for one day.
+         *
+         * @param date day date
+         * @param templateName template the day will be generated from
+         * @return classes, one per class block of the template
+         */
+        List<Assignment> classesFor(LocalDate date, String templateName);
+    }
+
+    /**
+     * What to generate.
+     *
+     * @param start first date of the term, inclusive
+     * @param end last date of the term, inclusive
+     * @param rotation template names, used one school day at a time and repeated
+     * @param sections sections meeting every day
+     * @param classes classes meeting on each day
+     * @param closedDates weekdays without school
+     * @param requestFile request CSV to load for every day, or {@code null} for none
+     */
+    public record Plan(LocalDate start, LocalDate end, List<String> rotation, List<Section> sections,
+                       DayClasses classes, Set<LocalDate> closedDates, File requestFile) {
+        /**
+         * Validates the plan and copies its collections.
+         */
+        public Plan {
+            if (start == null || end == null) throw new IllegalArgumentException("start and end must not be null");
+            if (end.isBefore(start)) throw new IllegalArgumentException("end must not be before start");
+            if (rotation == null || rotation.isEmpty()) throw new IllegalArgumentException("rotation must not be empty");
+            if (sections == null || sections.isEmpty()) throw new IllegalArgumentException("sections must not be empty");
+            if (classes == null) throw new IllegalArgumentException("classes must not be null");
+            rotation = List.copyOf(rotation);
+            sections = List.copyOf(sections);
+            closedDates = closedDates == null ? Set.of() : Set.copyOf(closedDates);
+        }
+    }
+
+    /**
+     * Outcome and throughput of one run.
+     *
+     * @param weeks generated weeks in date order, failed ones excluded
+     * @param failures failure message per failed week, keyed by its starting date
+     * @param days school days generated
+     * @param elapsed wall-clock generation time, excluding planning and storing
+     * @param parallelism worker threads available to the pool
+     */
+    public record Result(List<Week> weeks, Map<LocalDate, String> failures, int days, Duration elapsed, int parallelism) {
+        /**
+         * Returns generated school days per second of wall-clock time.
+         *
+         * @return day throughput
+         */
+        public double daysPerSecond() {
+            return days / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        }
+
+        /**
+         * Returns generated weeks per second of wall-clock time.
+         *
+         * @return week throughput
+         */
+        public double weeksPerSecond() {
+            return weeks.size() / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        }
+
+        /**
+         * Returns a one-line report of the run.
+         *
+         * @return human-readable summary
+         */
+        public String summary() {
+            return String.format(Locale.ROOT, "Generated %d weeks (%d days) in %d ms on %d threads: %.1f days/s, %.1f weeks/s, %d weeks failed.",
+                    weeks.size(), days, elapsed.toMillis(), parallelism, daysPerSecond(), weeksPerSecond(), failures.size());
+        }
+    }
+
+    /**
+     * Creates a generator on the common pool with the process-wide builder configuration.
+     */
+    public SemesterGenerator() {
+        this(ForkJoinPool.commonPool(), ScheduleBuilder.getConfig());
+    }
+
+    /**
+     * Creates a generator.
+     *
+     * @param pool pool that generates the weeks
+     * @param config split-course and PE settings for every day
+     */
+    public SemesterGenerator(ForkJoinPool pool, BuilderConfig config) {
+        if (pool == null) throw new IllegalArgumentException("pool must not be null");
+        if (config == null) throw new IllegalArgumentException("config must not be null");
+        this.pool = pool;
+        this.config = config;
+    }
+
+    /**
+     * Generates the planned weeks and adds the successful ones to the schedule.
+     *
+     * @param schedule schedule to continue and store into
+     * @param plan what to generate
+     * @param context randomness and solver, split once per week
+     * @return generated weeks, failures and throughput
+     * @throws IllegalArgumentException when the plan starts before the schedule's last week ends
+     * @throws RuntimeException when the plan's request file cannot be read
+     */
+    public Result generate(Schedule schedule, Plan plan, GenerationContext context) {
+        Week last = schedule.getWeeks().values().stream()
+                .filter(week -> week.getDays() != null && !week.getDays().isEmpty())
+                .max(Comparator.comparing(Week::getStartingDate))
+                .orElse(null);
+        if (last != null && !plan.start().isAfter(last.getEndingDate())) {
+            throw new IllegalArgumentException("The term must start after the last scheduled week, which ends " + last.getEndingDate() + ".");
+        }
+        int firstDayNumber = last == null ? 0 : last.getEndingDayNumber() + 1;
+
+        List<Week> weeks = new ArrayList<>();
+        List<List<String>> templates = new ArrayList<>();
+        planWeeks(plan, firstDayNumber, weeks, templates);
+        GenerationContext[] contexts = new GenerationContext[weeks.size()];
+        for (int w = 0; w < contexts.length; w++) {
+            contexts[w] = context.split();
+        }
+
+        // One pass over the request file for the whole term; weeks only read the index
+        NavigableMap<LocalDate, List<TeacherRequest>> requests = plan.requestFile() == null
+                ? null : RequestLoader.loadRequests(plan.requestFile(), plan.start(), plan.end());
+
+        String[] errors = new String[weeks.size()];
+        long start = System.nanoTime();
+        if (!weeks.isEmpty()) {
+            pool.invoke(new WeekRange(requests, weeks, templates, contexts, errors, 0, weeks.size()));
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        List<Week> generated = new ArrayList<>();
+        Map<LocalDate, String> failures = new LinkedHashMap<>();
+        int generatedDays = 0;
+        for (int w = 0; w < weeks.size(); w++) {
+            if (errors[w] == null) {
+                generated.add(weeks.get(w));
+                generatedDays += weeks.get(w).getDays().size();
+                schedule.addWeek(weeks.get(w));
+            } else {
+                failures.put(weeks.get(w).getStartingDate(), errors[w]);
+            }
+        }
+        return new Result(List.copyOf(generated), failures, generatedDays, elapsed, pool.getParallelism());
+    }
+
+    // Groups school days into weeks, numbering days and assigning templates in order
+    private static void planWeeks(Plan plan, int firstDayNumber, List<Week> weeks, List<List<String>> templates) {
+        int dayNumber = firstDayNumber;
+        int schoolDay = 0;
+        LocalDate weekStart = null;
+        List<Day> days = null;
+        List<String> names = null;
+        for (LocalDate date = plan.start(); !date.isAfter(plan.end()); date = date.plusDays(1)) {
+            DayOfWeek dow = date.getDayOfWeek();
+            if (dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY || plan.closedDates().contains(date)) {
+                continue;
+            }
+            LocalDate monday = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            if (!monday.equals(weekStart)) {
+                weekStart = monday;
+                days = new ArrayList<>();
+                names = new ArrayList<>();
+                weeks.add(new Week(days));
+                templates.add(names);
+            }
+            String template = plan.rotation().get(schoolDay % plan.rotation().size());
+            List<Assignment> classes = plan.classes().classesFor(date, template);
+            days.add(new Day(date, dayNumber++, new ArrayList<>(plan.sections()), new ArrayList<>(classes)));
+            names.add(template);
+            schoolDay++;
+        }
+    }
+
+    // Splits the week range in half until one week remains, then generates it
+    private final class WeekRange extends RecursiveAction {
+        private final NavigableMap<LocalDate, List<TeacherRequest>> requests;
+        private final List<Week> weeks;
+        private final List<List<String>> templates;
+        private final GenerationContext[] contexts;
+        private final String[] errors;
+        private final int from;
+        private final int to;
+
+        WeekRange(NavigableMap<LocalDate, List<TeacherRequest>> requests, List<Week> weeks, List<List<String>> templates, GenerationContext[] contexts,
+                  String[] errors, int from, int to) {
+            this.requests = requests;
+            this.weeks = weeks;
+            this.templates = templates;
+            this.contexts = contexts;
+            this.errors = errors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                generateWeek(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new WeekRange(requests, weeks, templates, contexts, errors, from, mid),
+                    new WeekRange(requests, weeks, templates, contexts, errors, mid, to));
+        }
+
+        private void generateWeek(int w) {
+            Week week = weeks.get(w);
+            try {
+                if (requests != null) {
+                    week.loadRequests(requests);
+                }
+                week.generateBlocks(templates.get(w), contexts[w], config);
+            } catch (RuntimeException e) {
+                errors[w] = e.getMessage() == null ? e.toString() : e.getMessage();
+            }
+        }
+    }
+
+    /**
+     * Generates a term without the editor and saves it.
+     * <p>
+     * Usage: {@code start end [--rotation A,B,...] [--sections R,G,B] [--classes Name:Teacher,...]
+     * [--closed yyyy-MM-dd,...] [--requests requests.csv] [--out schedule.json] [--seed n]
+     * [--threads n]}. Every day takes the listed classes; when a template has fewer class blocks
+     * than that, a different class sits out each day in turn.
+     *
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: SemesterGenerator start end [--rotation A,B,...] [--sections R,G,B] [--classes Name:Teacher,...] "
+                    + "[--closed yyyy-MM-dd,...] [--requests requests.csv] [--out schedule.json] [--seed n] [--threads n]");
+            System.exit(2);
+        }
+        LocalDate start = LocalDate.parse(args[0]);
+        LocalDate end = LocalDate.parse(args[1]);
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+
+        List<String> rotation = splitList(options.getOrDefault("--rotation", "Class Meeting Day,Homeroom Day,Flex Day,PE Day,Homeroom Day"));
+        List<Section> sections = splitList(options.getOrDefault("--sections", "R,G,B")).stream().map(Section::new).toList();
+        List<Assignment> classes = new ArrayList<>();
+        for (String spec : splitList(options.getOrDefault("--classes", "Math:Durost,Physics:Chase,CS:Taricco,STEM:Crowthers,Hum:Small,Lang:Wildfong"))) {
+            String[] parts = spec.split(":", 2);
+            classes.add(new Course(parts[0].trim(), new Teacher(parts.length > 1 ? parts[1].trim() : "")));
+        }
+        Set<LocalDate> closed = options.containsKey("--closed")
+                ? Set.copyOf(splitList(options.get("--closed")).stream().map(LocalDate::parse).toList())
+                : Set.of();
+        File requests = options.containsKey("--requests") ? new File(options.get("--requests")) : null;
+        File out = new File(options.getOrDefault("--out", "schedule.json"));
+        GenerationContext context = options.containsKey("--seed")
+                ? GenerationContext.seeded(Long.parseLong(options.get("--seed")))
+                : GenerationContext.defaults();
+        ForkJoinPool pool = options.containsKey("--threads")
+                ? new ForkJoinPool(Integer.parseInt(options.get("--threads")))
+                : ForkJoinPool.commonPool();
+
+        Schedule schedule = Schedule.loadFromFile(out);
+        Plan plan = new Plan(start, end, rotation, sections, (date, template) -> fitToTemplate(classes, template, date), closed, requests);
+        Result result = new SemesterGenerator(pool, ScheduleBuilder.getConfig()).generate(schedule, plan, context);
+        schedule.saveToFile(out);
+
+        System.out.println(result.summary());
+        result.failures().forEach((date, message) -> System.out.println("  Week of " + date + ": " + message));
+        System.exit(result.failures().isEmpty() ? 0 : 1);
+    }
+
+    // Keeps as many classes as the template has class blocks, rotating which ones sit out
+    private static List<Assignment> fitToTemplate(List<Assignment> classes, String templateName, LocalDate date) {
+        TemplateLayout layout = TemplateManager.getLayout(templateName);
+        if (layout == null) {
+            throw new IllegalArgumentException("Unknown template: " + templateName);
+        }
+        int blocks = layout.getClassBlockCount();
+        if (blocks >= classes.size()) {
+            return classes;
+        }
+        int offset = (int) Math.floorMod(date.toEpochDay(), (long) classes.size());
+        boolean[] keep = new boolean[classes.size()];
+        for (int i = 0; i < blocks; i++) {
+            keep[(offset + i) % classes.size()] = true;
+        }
+        List<Assignment> kept = new ArrayList<>();
+        for (int i = 0; i < classes.size(); i++) {
+            if (keep[i]) kept.add(classes.get(i));
+        }
+        return kept;
+    }
+
+    private static List<String> splitList(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+}
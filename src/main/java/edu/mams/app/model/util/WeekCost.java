@@ -0,0 +1,115 @@
+package edu.mams.app.model.util;
+
+import edu.mams.app.model.people.Section;
+import edu.mams.app.model.schedule.Assignment;
+import edu.mams.app.model.schedule.ClassBlock;
+import edu.mams.app.model.schedule.Course;
+import edu.mams.app.model.schedule.Day;
+import edu.mams.app.model.schedule.ScheduleEntry;
+import edu.mams.app.model.schedule.Week;
+
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Soft-constraint cost of a generated week. Costs are non-negative, lower is better, and
+ * zero means there is nothing left to improve.
+ * <p>
+ * Hard constraints (Latin layout, avoid-time requests) are kept by {@link WeekOptimizer}
+ * itself, so a cost only has to score quality. Costs combine with {@link #plus(WeekCost)} and
+ * {@link #times(double)}.
+ */
+@FunctionalInterface
+public interface WeekCost {
+    /**
+     * Counts, per section, each class that meets at the same start time on two consecutive
+     * days of the week.
+     */
+    WeekCost SAME_CLASS_SAME_TIME = week -> {
+        double cost = 0;
+        Map<Section, Map<LocalTime, Assignment>> previous = null;
+        for (Day day : week.getDays()) {
+            Map<Section, Map<LocalTime, Assignment>> current = new HashMap<>();
+            if (day.getEntries() != null) {
+                for (ScheduleEntry entry : day.getEntries()) {
+                    if (entry instanceof ClassBlock classBlock && classBlock.getSectionCourses() != null) {
+                        for (Map.Entry<Section, Assignment> e : classBlock.getSectionCourses().entrySet()) {
+                            current.computeIfAbsent(e.getKey(), s -> new HashMap<>()).put(entry.getStart(), e.getValue());
+                            if (previous != null) {
+                                Map<LocalTime, Assignment> before = previous.get(e.getKey());
+                                if (before != null && Objects.equals(before.get(entry.getStart()), e.getValue())) {
+                                    cost++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            previous = current;
+        }
+        return cost;
+    };
+
+    /**
+     * Counts, per day, each pair of consecutive class blocks in which the same teacher
+     * teaches in both, so teaching loads spread out across the day.
+     */
+    WeekCost BACK_TO_BACK_TEACHING = week -> {
+        double cost = 0;
+        for (Day day : week.getDays()) {
+            if (day.getEntries() == null) {
+                continue;
+            }
+            List<ClassBlock> blocks = day.getEntries().stream()
+                    .filter(ClassBlock.class::isInstance)
+                    .map(ClassBlock.class::cast)
+                    .toList();
+            for (int b = 1; b < blocks.size(); b++) {
+                Map<Section, Assignment> before = blocks.get(b - 1).getSectionCourses();
+                Map<Section, Assignment> after = blocks.get(b).getSectionCourses();
+                if (before == null || after == null) {
+                    continue;
+                }
+                for (Assignment a : before.values()) {
+                    if (a instanceof Course course && course.getTeacher() != null
+                            && after.values().stream().anyMatch(other -> other instanceof Course c
+                            && course.getTeacher().equals(c.getTeacher()))) {
+                        cost++;
+                    }
+                }
+            }
+        }
+        return cost;
+    };
+
+    /**
+     * Scores a week.
+     *
+     * @param week week to score
+     * @return cost, lower is better
+     */
+    double cost(Week week);
+
+    /**
+     * Returns the sum of this cost and another.
+     *
+     * @param other cost to add
+     * @return combined cost
+     */
+    default WeekCost plus(WeekCost other) {
+        return week -> cost(week) + other.cost(week);
+    }
+
+    /**
+     * Returns this cost scaled by a weight.
+     *
+     * @param weight multiplier
+     * @return weighted cost
+     */
+    default WeekCost times(double weight) {
+        return week -> weight * cost(week);
+    }
+}
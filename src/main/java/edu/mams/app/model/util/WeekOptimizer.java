@@ -0,0 +1,265 @@
+package edu.mams.app.model.util;
+
+import edu.mams.app.model.people.Section;
+import edu.mams.app.model.requests.AvoidTimeRequest;
+import edu.mams.app.model.requests.TeacherRequest;
+import edu.mams.app.model.schedule.Assignment;
+import edu.mams.app.model.schedule.ClassBlock;
+import edu.mams.app.model.schedule.Day;
+import edu.mams.app.model.schedule.ScheduleEntry;
+import edu.mams.app.model.schedule.SplitCourse;
+import edu.mams.app.model.schedule.Week;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Improves a generated week against a {@link WeekCost} by simulated annealing.
+ * <p>
+ * Moves swap two class blocks of a day, or two sections' columns of a day. Both keep every
+ * section meeting every class once and every block holding distinct classes, and a block swap
+ * is only tried when each moved class may meet at its new time under the day's avoid-time
+ * requests. Blocks and sections holding a split course stay where the builder put them.
+ * The temperature cools geometrically over the time budget and the best week seen is kept.
+ */
+public class WeekOptimizer {
+    private static final int CLOCK_CHECK_INTERVAL = 64;
+    private static final int CALIBRATION_MOVES = 32;
+    private static final double FINAL_TEMPERATURE_RATIO = 1e-3;
+
+    private final WeekCost cost;
+    private final Duration budget;
+
+    /**
+     * Summary of one optimization run.
+     *
+     * @param initialCost cost of the week as generated
+     * @param finalCost cost of the week as left by the optimizer
+     * @param iterations moves evaluated
+     * @param accepted moves kept at the time they were tried
+     */
+    public record Result(double initialCost, double finalCost, long iterations, long accepted) {
+    }
+
+    // One day's movable parts
+    private record DayMoves(Day day, List<ClassBlock> blocks, List<Section> sections) {
+    }
+
+    /**
+     * Creates an optimizer.
+     *
+     * @param cost soft-constraint cost to minimize
+     * @param budget wall-clock time to spend per week
+     */
+    public WeekOptimizer(WeekCost cost, Duration budget) {
+        if (cost == null) throw new IllegalArgumentException("cost must not be null");
+        if (budget == null || budget.isNegative()) throw new IllegalArgumentException("budget must be non-negative");
+        this.cost = cost;
+        this.budget = budget;
+    }
+
+    /**
+     * Generates a week from templates and then optimizes it.
+     *
+     * @param week week whose days will be generated
+     * @param templates day template names in week order
+     * @param context randomness and solver for generation and search
+     * @return optimization summary
+     */
+    public Result generate(Week week, List<String> templates, GenerationContext context) {
+        week.generateBlocks(templates, context);
+        return optimize(week, context);
+    }
+
+    /**
+     * Optimizes an already generated week in place.
+     *
+     * @param week generated week
+     * @param context source of random moves
+     * @return optimization summary
+     */
+    public Result optimize(Week week, GenerationContext context) {
+        RandomGenerator random = context.random();
+        List<DayMoves> days = collectMoves(week);
+        double initial = cost.cost(week);
+        if (days.isEmpty() || initial == 0) {
+            return new Result(initial, initial, 0, 0);
+        }
+
+        double current = initial;
+        double best = initial;
+        List<Map<Section, Assignment>> bestLayout = snapshot(days);
+        double startTemperature = calibrate(week, days, random, current);
+        double temperature = startTemperature;
+
+        long deadline = System.nanoTime() + budget.toNanos();
+        long start = System.nanoTime();
+        long iterations = 0;
+        long accepted = 0;
+        while (best > 0) {
+            if (iterations % CLOCK_CHECK_INTERVAL == 0) {
+                long now = System.nanoTime();
+                if (now >= deadline) break;
+                double progress = (double) (now - start) / Math.max(1, deadline - start);
+                temperature = startTemperature * Math.pow(FINAL_TEMPERATURE_RATIO, progress);
+            }
+            iterations++;
+
+            Runnable undo = randomMove(days, random);
+            if (undo == null) continue;
+
+            double next = cost.cost(week);
+            double delta = next - current;
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                current = next;
+                accepted++;
+                if (current < best) {
+                    best = current;
+                    bestLayout = snapshot(days);
+                }
+            } else {
+                undo.run();
+            }
+        }
+
+        restore(days, bestLayout);
+        return new Result(initial, best, iterations, accepted);
+    }
+
+    private static List<DayMoves> collectMoves(Week week) {
+        List<DayMoves> days = new ArrayList<>();
+        for (Day day : week.getDays()) {
+            if (day.getEntries() == null || day.getSections() == null) {
+                continue;
+            }
+            List<ClassBlock> blocks = new ArrayList<>();
+            List<Section> sections = new ArrayList<>(day.getSections());
+            for (ScheduleEntry entry : day.getEntries()) {
+                if (entry instanceof ClassBlock classBlock && classBlock.getSectionCourses() != null) {
+                    boolean hasSplit = false;
+                    for (Map.Entry<Section, Assignment> e : classBlock.getSectionCourses().entrySet()) {
+                        if (e.getValue() instanceof SplitCourse) {
+                            hasSplit = true;
+                            sections.remove(e.getKey());
+                        }
+                    }
+                    if (!hasSplit) {
+                        blocks.add(classBlock);
+                    }
+                }
+            }
+            if (blocks.size() > 1 || sections.size() > 1) {
+                days.add(new DayMoves(day, blocks, sections));
+            }
+        }
+        return days;
+    }
+
+    // Average uphill step of a few random moves, so acceptance starts near e^-1 for them
+    private double calibrate(Week week, List<DayMoves> days, RandomGenerator random, double current) {
+        double uphill = 0;
+        int count = 0;
+        for (int i = 0; i < CALIBRATION_MOVES; i++) {
+            Runnable undo = randomMove(days, random);
+            if (undo == null) continue;
+            double delta = cost.cost(week) - current;
+            undo.run();
+            if (delta > 0) {
+                uphill += delta;
+                count++;
+            }
+        }
+        return count == 0 ? 1.0 : uphill / count;
+    }
+
+    // Applies a random Latin-preserving move and returns how to undo it, or null if none fits
+    private static Runnable randomMove(List<DayMoves> days, RandomGenerator random) {
+        DayMoves moves = days.get(random.nextInt(days.size()));
+        boolean swapBlocks = moves.sections().size() < 2
+                || (moves.blocks().size() >= 2 && random.nextBoolean());
+
+        if (swapBlocks) {
+            List<ClassBlock> blocks = moves.blocks();
+            int i = random.nextInt(blocks.size());
+            int j = random.nextInt(blocks.size() - 1);
+            if (j >= i) j++;
+            ClassBlock a = blocks.get(i);
+            ClassBlock b = blocks.get(j);
+            if (!allowedAt(moves.day(), a.getSectionCourses(), b) || !allowedAt(moves.day(), b.getSectionCourses(), a)) {
+                return null;
+            }
+            swapBlocks(a, b);
+            return () -> swapBlocks(a, b);
+        }
+
+        List<Section> sections = moves.sections();
+        int i = random.nextInt(sections.size());
+        int j = random.nextInt(sections.size() - 1);
+        if (j >= i) j++;
+        Section s = sections.get(i);
+        Section t = sections.get(j);
+        swapSections(moves.day(), s, t);
+        return () -> swapSections(moves.day(), s, t);
+    }
+
+    private static void swapBlocks(ClassBlock a, ClassBlock b) {
+        Map<Section, Assignment> courses = a.getSectionCourses();
+        a.setSectionCourses(b.getSectionCourses());
+        b.setSectionCourses(courses);
+    }
+
+    private static void swapSections(Day day, Section s, Section t) {
+        for (ScheduleEntry entry : day.getEntries()) {
+            if (entry instanceof ClassBlock classBlock && classBlock.getSectionCourses() != null) {
+                Map<Section, Assignment> courses = classBlock.getSectionCourses();
+                Assignment first = courses.get(s);
+                Assignment second = courses.get(t);
+                courses.put(s, second);
+                courses.put(t, first);
+            }
+        }
+    }
+
+    // Whether every assignment may meet during the target block under the day's requests
+    private static boolean allowedAt(Day day, Map<Section, Assignment> courses, ClassBlock target) {
+        List<TeacherRequest> requests = day.getRequests();
+        if (requests == null) {
+            return true;
+        }
+        for (TeacherRequest request : requests) {
+            if (request instanceof AvoidTimeRequest avoidTimeRequest
+                    && courses.containsValue(avoidTimeRequest.getAssignment())
+                    && target.intersects(avoidTimeRequest)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Map<Section, Assignment>> snapshot(List<DayMoves> days) {
+        List<Map<Section, Assignment>> layout = new ArrayList<>();
+        for (DayMoves moves : days) {
+            for (ScheduleEntry entry : moves.day().getEntries()) {
+                if (entry instanceof ClassBlock classBlock) {
+                    layout.add(classBlock.getSectionCourses() == null ? null : new HashMap<>(classBlock.getSectionCourses()));
+                }
+            }
+        }
+        return layout;
+    }
+
+    private static void restore(List<DayMoves> days, List<Map<Section, Assignment>> layout) {
+        int i = 0;
+        for (DayMoves moves : days) {
+            for (ScheduleEntry entry : moves.day().getEntries()) {
+                if (entry instanceof ClassBlock classBlock) {
+                    classBlock.setSectionCourses(layout.get(i++));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package edu.mams.app.model.util;
+
+import edu.mams.app.model.people.Section;
+import edu.mams.app.model.schedule.Assignment;
+import edu.mams.app.model.schedule.Day;
+import edu.mams.app.model.schedule.Week;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates every day of a week in one exact-cover search, so constraints can span days.
+ * <p>
+ * Each day is prepared exactly as {@link ScheduleBuilder} would prepare it on its own. The
+ * cross-day rule is that, at each tracked block position, a section may see a given class at
+ * most once per week. A fast pass fills the days in order with one bipartite matching per
+ * section, excluding classes a section already saw at a tracked position. If a greedy choice
+ * strands a later column, all day grids are encoded side by side in one {@link DancingLinks}
+ * matrix, with the cross-day keys as secondary columns, and solved exactly. When a split
+ * day has several feasible split placements and the week fails, the other placements are
+ * tried in turn, up to a fixed number of combinations. The Hall's-condition pre-check only
+ * runs to explain a failure.
+ */
+public final class WeekSolver {
+    /**
+     * Each section sees each class in the first block of the day at most once per week.
+     */
+    public static final WeekSolver DISTINCT_FIRST_BLOCKS = distinctClassesAt(0);
+
+    private static final int MATCHING_ATTEMPTS = 3;
+    private static final int MAX_PLACEMENT_COMBINATIONS = 64;
+
+    // Week-wide section and class ids for each day's columns and values
+    private record WeekIds(int[][] sections, int[][] classes, int sectionCount, int classCount) {
+    }
+
+    private final int[] positions;
+
+    private WeekSolver(int[] positions) {
+        this.positions = positions;
+    }
+
+    /**
+     * Returns a solver where each section sees each class at most once per week at every
+     * given block position. Positions count class blocks from 0; negative positions count
+     * from the end of the day, so -1 is the last block.
+     *
+     * @param positions tracked block positions
+     * @return week solver
+     */
+    public static WeekSolver distinctClassesAt(int... positions) {
+        return new WeekSolver(positions.clone());
+    }
+
+    /**
+     * Generates all days of the week together.
+     *
+     * @param week week whose days will be generated
+     * @param templates day template names in week order
+     * @param context randomness for split placement and search order
+     * @throws IllegalStateException when a day, or the week as a whole, cannot be scheduled
+     */
+    public void generate(Week week, List<String> templates, GenerationContext context) {
+        generate(week, templates, context, ScheduleBuilder.getConfig());
+    }
+
+    /**
+     * Generates all days of the week together using an explicit builder configuration.
+     *
+     * @param week week whose days will be generated
+     * @param templates day template names in week order
+     * @param context randomness for split placement and search order
+     * @param config split-course and PE settings
+     * @throws IllegalStateException when a day, or the week as a whole, cannot be scheduled
+     */
+    public void generate(Week week, List<String> templates, GenerationContext context, BuilderConfig config) {
+        ScheduleBuilder builder = new ScheduleBuilder(config);
+        List<Day> days = week.getDays();
+        List<List<ScheduleBuilder.DayProblem>> candidates = new ArrayList<>();
+        long combinations = 1;
+        for (int d = 0; d < days.size(); d++) {
+            candidates.add(builder.prepareDayCandidates(templates.get(d), days.get(d), context.split().random()));
+            combinations = Math.multiplyExact(combinations, candidates.get(d).size());
+        }
+
+        // Split placements are tried in combination, odometer style, until one week solves
+        int[] choice = new int[days.size()];
+        List<ScheduleBuilder.DayProblem> problems = null;
+        int[][][] grids = null;
+        int tried = 0;
+        while (grids == null && tried < MAX_PLACEMENT_COMBINATIONS) {
+            problems = new ArrayList<>();
+            for (int d = 0; d < days.size(); d++) problems.add(candidates.get(d).get(choice[d]));
+            grids = solve(problems, context.random());
+            tried++;
+            if (!advance(choice, candidates)) break;
+        }
+        if (grids == null) {
+            // Name the day at fault when one fails on its own
+            for (List<ScheduleBuilder.DayProblem> day : candidates) {
+                ScheduleBuilder.requireFeasible(day.getFirst());
+            }
+            String placements = combinations == 1 ? ""
+                    : tried < combinations ? " with the first " + tried + " of " + combinations + " split placement combinations"
+                    : " with any of the " + combinations + " split placement combinations";
+            throw new IllegalStateException("Every day can be scheduled on its own, but no week satisfies the cross-day constraints at block positions " + Arrays.toString(positions) + placements + ".");
+        }
+
+        for (int d = 0; d < days.size(); d++) {
+            days.get(d).setTemplate(templates.get(d));
+            days.get(d).setEntries(builder.finishDay(problems.get(d), grids[d]));
+        }
+    }
+
+    // Moves to the next combination of day candidates; false once all have been visited
+    private static boolean advance(int[] choice, List<List<ScheduleBuilder.DayProblem>> candidates) {
+        for (int d = 0; d < choice.length; d++) {
+            if (++choice[d] < candidates.get(d).size()) return true;
+            choice[d] = 0;
+        }
+        return false;
+    }
+
+    // Maps sections and classes to week-wide ids and records cross-day keys taken by presets
+    private int[][][] solve(List<ScheduleBuilder.DayProblem> problems, RandomGenerator rnd) {
+        Map<Section, Integer> sectionIds = new HashMap<>();
+        Map<Assignment, Integer> classIds = new HashMap<>();
+        for (ScheduleBuilder.DayProblem problem : problems) {
+            for (Section section : problem.sections()) sectionIds.putIfAbsent(section, sectionIds.size());
+            for (Assignment assignment : problem.classes()) classIds.putIfAbsent(assignment, classIds.size());
+        }
+        int sectionCount = sectionIds.size();
+        int classCount = classIds.size();
+
+        // Day-local column and value ids translated to week-wide ids once, so the searches
+        // below only index arrays
+        int[][] daySections = new int[problems.size()][];
+        int[][] dayClasses = new int[problems.size()][];
+        for (int d = 0; d < problems.size(); d++) {
+            ScheduleBuilder.DayProblem problem = problems.get(d);
+            daySections[d] = problem.sections().stream().mapToInt(sectionIds::get).toArray();
+            dayClasses[d] = problem.classes().stream().mapToInt(classIds::get).toArray();
+        }
+        WeekIds ids = new WeekIds(daySections, dayClasses, sectionCount, classCount);
+
+        // Cross-day keys already taken by preset cells
+        boolean[] preset = new boolean[positions.length * sectionCount * classCount];
+        for (int d = 0; d < problems.size(); d++) {
+            int[][] partial = problems.get(d).partial();
+            for (int p = 0; p < positions.length; p++) {
+                int r = rowAt(positions[p], partial.length);
+                if (r < 0) continue;
+                for (int c = 0; c < Math.min(partial[r].length, daySections[d].length); c++) {
+                    int v = partial[r][c];
+                    if (v == -1) continue;
+                    int key = crossKey(p, daySections[d][c], dayClasses[d][v], sectionCount, classCount);
+                    if (preset[key]) return null;
+                    preset[key] = true;
+                }
+            }
+        }
+
+        for (int attempt = 0; attempt < MATCHING_ATTEMPTS; attempt++) {
+            int[][][] matched = matchDayByDay(problems, rnd, ids, preset.clone());
+            if (matched != null) return matched;
+        }
+        return exactCover(problems, rnd, ids, preset);
+    }
+
+    // Fast path: fills each day column by column with bipartite matchings, carrying the
+    // cross-day keys forward as cell-level exclusions. Returns null when a greedy choice
+    // leaves a later column unmatched; the exact cover then decides.
+    private int[][][] matchDayByDay(List<ScheduleBuilder.DayProblem> problems, RandomGenerator rnd, WeekIds ids, boolean[] used) {
+        int sectionCount = ids.sectionCount();
+        int classCount = ids.classCount();
+        int[][][] grids = new int[problems.size()][][];
+
+        for (int d = 0; d < problems.size(); d++) {
+            ScheduleBuilder.DayProblem problem = problems.get(d);
+            int[] sections = ids.sections()[d];
+            int[] classes = ids.classes()[d];
+            int[][] partial = problem.partial();
+            int n = partial.length;
+            int cols = n == 0 ? 0 : partial[0].length;
+            boolean[][] forbidden = problem.forbidden();
+            int[][] grid = new int[n][];
+            boolean[][] rowUsed = new boolean[n][n];
+            for (int r = 0; r < n; r++) {
+                grid[r] = partial[r].clone();
+                for (int v : grid[r]) {
+                    if (v != -1) rowUsed[r][v] = true;
+                }
+            }
+            boolean[] tracked = new boolean[n];
+            for (int position : positions) {
+                int r = rowAt(position, n);
+                if (r >= 0) tracked[r] = true;
+            }
+
+            for (int c = 0; c < cols; c++) {
+                boolean[] colHas = new boolean[n];
+                int empty = 0;
+                for (int r = 0; r < n; r++) {
+                    if (grid[r][c] == -1) empty++;
+                    else colHas[grid[r][c]] = true;
+                }
+                if (empty == 0) continue;
+
+                int section = c < sections.length ? sections[c] : -1;
+                int[] rows = new int[empty];
+                int[][] adj = new int[empty][];
+                int[] scratch = new int[n];
+                int i = 0;
+                for (int r : shuffled(n, rnd)) {
+                    if (grid[r][c] != -1) continue;
+                    int count = 0;
+                    for (int v : shuffled(n, rnd)) {
+                        if (colHas[v] || rowUsed[r][v] || forbidden[r][v]) continue;
+                        if (section >= 0 && tracked[r] && isUsedAtTrackedRows(used, r, n, section,
+                                classes[v], sectionCount, classCount)) continue;
+                        scratch[count++] = v;
+                    }
+                    rows[i] = r;
+                    adj[i++] = Arrays.copyOf(scratch, count);
+                }
+
+                BipartiteMatcher matcher = new BipartiteMatcher(n, adj);
+                if (matcher.maxMatching() < empty) return null;
+                for (i = 0; i < empty; i++) {
+                    int r = rows[i];
+                    int v = matcher.matchOfLeft(i);
+                    grid[r][c] = v;
+                    rowUsed[r][v] = true;
+                    if (section >= 0) markTrackedRows(used, r, n, section, classes[v], sectionCount, classCount);
+                }
+            }
+            grids[d] = grid;
+        }
+        return grids;
+    }
+
+    // Whether any tracked position falling on row r already holds the class for the section
+    private boolean isUsedAtTrackedRows(boolean[] used, int r, int rows, int section, int assignment, int sectionCount, int classCount) {
+        for (int p = 0; p < positions.length; p++) {
+            if (rowAt(positions[p], rows) == r && used[crossKey(p, section, assignment, sectionCount, classCount)]) return true;
+        }
+        return false;
+    }
+
+    private void markTrackedRows(boolean[] used, int r, int rows, int section, int assignment, int sectionCount, int classCount) {
+        for (int p = 0; p < positions.length; p++) {
+            if (rowAt(positions[p], rows) == r) used[crossKey(p, section, assignment, sectionCount, classCount)] = true;
+        }
+    }
+
+    // Complete search: every day side by side in one exact-cover matrix
+    private int[][][] exactCover(List<ScheduleBuilder.DayProblem> problems, RandomGenerator rnd, WeekIds ids, boolean[] preset) {
+        int sectionCount = ids.sectionCount();
+        int classCount = ids.classCount();
+
+        // Primary ids: empty cells and missing column values; secondary ids: row values of
+        // rectangles and the cross-day keys
+        int primary = 0;
+        int secondary = 0;
+        List<int[]> cellIds = new ArrayList<>();
+        List<int[]> colValueIds = new ArrayList<>();
+        List<int[]> rowValueIds = new ArrayList<>();
+        int options = 0;
+        for (ScheduleBuilder.DayProblem problem : problems) {
+            int[][] partial = problem.partial();
+            int n = partial.length;
+            int cols = n == 0 ? 0 : partial[0].length;
+            boolean[][] rowHas = new boolean[n][n];
+            boolean[][] colHas = new boolean[cols][n];
+            for (int r = 0; r < n; r++) {
+                for (int c = 0; c < cols; c++) {
+                    if (partial[r][c] != -1) {
+                        rowHas[r][partial[r][c]] = true;
+                        colHas[c][partial[r][c]] = true;
+                    }
+                }
+            }
+
+            int[] cellId = new int[n * cols];
+            for (int i = 0; i < cellId.length; i++) {
+                cellId[i] = partial[i / cols][i % cols] == -1 ? primary++ : -1;
+                if (cellId[i] != -1) options += n;
+            }
+            int[] colValueId = new int[cols * n];
+            for (int i = 0; i < colValueId.length; i++) {
+                colValueId[i] = colHas[i / n][i % n] ? -1 : primary++;
+            }
+            int[] rowValueId = new int[n * n];
+            for (int i = 0; i < rowValueId.length; i++) {
+                // Square grids need every value in every row, rectangles only distinct ones
+                rowValueId[i] = rowHas[i / n][i % n] ? -1 : cols == n ? primary++ : -2 - secondary++;
+            }
+            cellIds.add(cellId);
+            colValueIds.add(colValueId);
+            rowValueIds.add(rowValueId);
+        }
+        int crossBase = secondary;
+        secondary += preset.length;
+
+        DancingLinks dlx = new DancingLinks(primary, secondary, options * (3 + positions.length));
+        int[] optionDay = new int[options];
+        int[] optionCell = new int[options];
+        int[] optionValue = new int[options];
+        int[] crossColumns = new int[positions.length];
+
+        for (int d = 0; d < problems.size(); d++) {
+            ScheduleBuilder.DayProblem problem = problems.get(d);
+            int[][] partial = problem.partial();
+            int n = partial.length;
+            int cols = n == 0 ? 0 : partial[0].length;
+            boolean[][] forbidden = problem.forbidden();
+            int[] cellId = cellIds.get(d);
+            int[] colValueId = colValueIds.get(d);
+            int[] rowValueId = rowValueIds.get(d);
+
+            int[] cellOrder = shuffled(n * cols, rnd);
+            for (int cell : cellOrder) {
+                if (cellId[cell] == -1) continue;
+                int r = cell / cols;
+                int c = cell % cols;
+                for (int v : shuffled(n, rnd)) {
+                    if (rowValueId[r * n + v] == -1 || colValueId[c * n + v] == -1 || forbidden[r][v]) continue;
+
+                    int crossCount = 0;
+                    boolean blocked = false;
+                    if (c < ids.sections()[d].length) {
+                        for (int p = 0; p < positions.length; p++) {
+                            if (rowAt(positions[p], n) != r) continue;
+                            int key = crossKey(p, ids.sections()[d][c], ids.classes()[d][v], sectionCount, classCount);
+                            if (preset[key]) {
+                                blocked = true;
+                                break;
+                            }
+                            crossColumns[crossCount++] = primary + crossBase + key;
+                        }
+                    }
+                    if (blocked) continue;
+
+                    int rowValue = rowValueId[r * n + v];
+                    int[] columns = new int[3 + crossCount];
+                    columns[0] = cellId[cell];
+                    columns[1] = colValueId[c * n + v];
+                    columns[2] = rowValue <= -2 ? primary + (-2 - rowValue) : rowValue;
+                    System.arraycopy(crossColumns, 0, columns, 3, crossCount);
+
+                    int option = dlx.addOption(columns);
+                    optionDay[option] = d;
+                    optionCell[option] = cell;
+                    optionValue[option] = v;
+                }
+            }
+        }
+
+        int[] chosen = dlx.solve();
+        if (chosen == null) return null;
+
+        int[][][] grids = new int[problems.size()][][];
+        for (int d = 0; d < problems.size(); d++) {
+            int[][] partial = problems.get(d).partial();
+            grids[d] = new int[partial.length][];
+            for (int r = 0; r < partial.length; r++) grids[d][r] = partial[r].clone();
+        }
+        for (int option : chosen) {
+            int[][] grid = grids[optionDay[option]];
+            int cols = grid[0].length;
+            grid[optionCell[option] / cols][optionCell[option] % cols] = optionValue[option];
+        }
+        return grids;
+    }
+
+    private static int rowAt(int position, int rows) {
+        int r = position >= 0 ? position : rows + position;
+        return r >= 0 && r < rows ? r : -1;
+    }
+
+    private static int crossKey(int position, int section, int assignment, int sectionCount, int classCount) {
+        return (position * sectionCount + section) * classCount + assignment;
+    }
+
+    private static int[] shuffled(int n, RandomGenerator rnd) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) a[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = a[i]; a[i] = a[j]; a[j] = t;
+        }
+        return a;
+    }
+}
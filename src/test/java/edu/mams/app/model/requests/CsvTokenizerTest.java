@@ -0,0 +1,50 @@
+package edu.mams.app.model.requests;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvTokenizerTest {
+
+    @Test
+    void readSplitsQuotedFieldsAndCleansThem() {
+        CsvTokenizer tokens = new CsvTokenizer();
+
+        assertEquals(5, tokens.read(" 2026-02-01 ,\"Smith, Jane\",\"He said \"\"hi\"\"\", \"\"\"quoted\"\"\" ,"));
+
+        assertEquals("2026-02-01", tokens.string(0));
+        assertEquals("Smith, Jane", tokens.string(1));
+        assertEquals("He said \"hi\"", tokens.string(2));
+        assertEquals("quoted", tokens.string(3));
+        assertEquals("", tokens.string(4));
+    }
+
+    @Test
+    void readNormalisesDashesInUtf8Lines() {
+        CsvTokenizer tokens = new CsvTokenizer();
+        byte[] line = "x,2026\u201302\u201403,Field trip \u2212 caf\u00e9,Avoid".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(3, tokens.read(line, 2, line.length - 2));
+
+        assertEquals("2026-02-03", tokens.string(0));
+        assertEquals("Field trip - caf\u00e9", tokens.string(1));
+        assertTrue(tokens.fieldEquals(2, "Avoid"));
+        assertFalse(tokens.fieldEquals(2, "All School"));
+    }
+
+    @Test
+    void readReusesBuffersAcrossLongerLines() {
+        CsvTokenizer tokens = new CsvTokenizer();
+        tokens.read("a,b");
+        String wide = "x".repeat(1000);
+
+        assertEquals(20, tokens.read((wide + ",").repeat(19) + wide));
+
+        assertEquals(wide, tokens.string(19));
+        assertEquals(1000, tokens.length(7));
+    }
+}
@@ -0,0 +1,64 @@
+package edu.mams.app.model.requests;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FormDateParserTest {
+
+    @Test
+    void datesMatchTheFormattersForEveryShape() {
+        DateTimeFormatter[] formats = {
+                DateTimeFormatter.ISO_LOCAL_DATE,
+                DateTimeFormatter.ofPattern("M/d/yyyy"),
+                DateTimeFormatter.ofPattern("MM/dd/yyyy")
+        };
+        for (LocalDate date = LocalDate.of(2023, 12, 25); date.isBefore(LocalDate.of(2025, 1, 10)); date = date.plusDays(1)) {
+            for (DateTimeFormatter format : formats) {
+                String text = format.format(date);
+                assertEquals(date, FormDateParser.parseDate(text.toCharArray(), 0, text.length()), text);
+            }
+        }
+    }
+
+    @Test
+    void timesMatchTheFormattersForEveryShape() {
+        DateTimeFormatter[] formats = {
+                DateTimeFormatter.ofPattern("H:mm"),
+                DateTimeFormatter.ofPattern("h:mm:ss a"),
+                DateTimeFormatter.ofPattern("h:mm a")
+        };
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            LocalTime time = LocalTime.of(minute / 60, minute % 60, minute % 7 == 0 ? 30 : 0);
+            for (DateTimeFormatter format : formats) {
+                String text = format.format(time);
+                LocalTime expected = LocalTime.parse(text, format);
+                assertEquals(expected, FormDateParser.parseTime(text.toCharArray(), 0, text.length()), text);
+            }
+        }
+    }
+
+    @Test
+    void parsersReadViewsAndLeaveOtherShapesToTheFormatters() {
+        char[] line = "x,12/31/2025,1:05 PM,".toCharArray();
+        assertEquals(LocalDate.of(2025, 12, 31), FormDateParser.parseDate(line, 2, 10));
+        assertEquals(LocalTime.of(13, 5), FormDateParser.parseTime(line, 13, 7));
+        assertNull(FormDateParser.parseDate(line, 2, 9));
+
+        for (String text : new String[]{"2/30/2026", "002/03/2026", "2026-2-3", "2/3/26", "0/3/2026"}) {
+            assertNull(FormDateParser.parseDate(text.toCharArray(), 0, text.length()), text);
+        }
+        for (String text : new String[]{"24:00", "7:5", "13:00 PM", "8:30 pm", "8:30PM", "8:30:00"}) {
+            assertNull(FormDateParser.parseTime(text.toCharArray(), 0, text.length()), text);
+        }
+
+        // The lenient pattern still resolves what the fast path declines
+        assertEquals(LocalDate.of(2026, 2, 28), RequestLoader.parseDate("2/30/2026"));
+        assertEquals(LocalDate.of(2026, 2, 3), RequestLoader.parseDate("002/03/2026"));
+    }
+}
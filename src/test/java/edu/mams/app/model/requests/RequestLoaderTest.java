@@ -10,6 +10,7 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.NavigableMap;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -71,4 +72,24 @@ class RequestLoaderTest {
         assertEquals(LocalTime.of(10, 0), second.getStartTime());
         assertEquals(Duration.ofMinutes(30), second.getLength());
     }
+
+    @Test
+    void loadRequestsIndexesRangeByDateInOnePass() throws Exception {
+        Path csvPath = tempDir.resolve("week.csv");
+        Files.writeString(csvPath, String.join("\n",
+                "Timestamp,Teacher,Date,Type,Time,Duration,Reason",
+                "2026-02-01,Brown,2/4/2026,Avoid,10:00,0.5,Planning",
+                "2026-02-01,Smith,2/2/2026,All School,7:45,1.0,Assembly",
+                "2026-02-01,Gray,2/4/2026,All School,13:45,1.0,Awards",
+                "2026-02-01,Other,2/9/2026,Lunch,11:00,1.0,Outside the week"
+        ));
+
+        NavigableMap<LocalDate, List<TeacherRequest>> index =
+                RequestLoader.loadRequests(new File(csvPath.toString()), LocalDate.of(2026, 2, 2), LocalDate.of(2026, 2, 6));
+
+        assertEquals(List.of(LocalDate.of(2026, 2, 2), LocalDate.of(2026, 2, 4)), List.copyOf(index.keySet()));
+        assertEquals(List.of("Brown", "Gray"), index.get(LocalDate.of(2026, 2, 4)).stream()
+                .map(r -> r.getTeacher().getName()).toList());
+        assertInstanceOf(AllSchoolRequest.class, index.get(LocalDate.of(2026, 2, 2)).get(0));
+    }
 }
@@ -0,0 +1,115 @@
+package edu.mams.app.model.requests;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RequestStoreTest {
+    private static final String HEADER = "Timestamp,Teacher,Date,Type,Time,Duration,Reason";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void repeatedReadsParseOnceAndReturnFreshRequests() throws Exception {
+        Path csv = tempDir.resolve("requests.csv");
+        Files.writeString(csv, String.join("\n", HEADER,
+                "2026-02-01,Brown,2/3/2026,Avoid,10:00,0.5,Planning",
+                "2026-02-01,Smith,2/4/2026,All School,7:45,1.0,Assembly"));
+        RequestStore store = RequestStore.forFile(csv.toFile());
+        assertSame(store, RequestStore.forFile(tempDir.resolve(".").resolve("requests.csv").toFile()));
+
+        List<TeacherRequest> first = store.getRequests(LocalDate.of(2026, 2, 3));
+        List<TeacherRequest> second = store.getRequests(LocalDate.of(2026, 2, 3));
+
+        assertEquals(1, store.getParseCount());
+        assertEquals(first, second);
+        assertNotSame(first.get(0), second.get(0));
+        assertEquals(List.of(LocalDate.of(2026, 2, 4)),
+                List.copyOf(store.getRequests(LocalDate.of(2026, 2, 4), LocalDate.of(2026, 2, 6)).keySet()));
+        assertEquals(1, store.getParseCount());
+    }
+
+    @Test
+    void appendedRowsAreReadWithoutParsingTheWholeFile() throws Exception {
+        Path csv = tempDir.resolve("appended.csv");
+        Files.writeString(csv, String.join("\n", HEADER, "2026-02-01,Brown,2/3/2026,Avoid,10:00,0.5,Planning"));
+        RequestStore store = RequestStore.forFile(csv.toFile());
+        assertEquals(1, store.getRequests(LocalDate.of(2026, 2, 3)).size());
+
+        Files.writeString(csv, "\r\n2026-02-01,Gray,2/3/2026,Avoid,13:45,1.0,Meeting\r\n", StandardOpenOption.APPEND);
+        assertEquals(List.of("Brown", "Gray"), names(store.getRequests(LocalDate.of(2026, 2, 3))));
+        Files.writeString(csv, "2026-02-01,Lane,2/4/2026,All School,7:45,1.0,Assembly\n", StandardOpenOption.APPEND);
+        assertEquals(List.of("Lane"), names(store.getRequests(LocalDate.of(2026, 2, 4))));
+
+        assertEquals(1, store.getParseCount());
+        assertEquals(2, store.getAppendCount());
+        assertEquals("Meeting", ((TeacherTimeRequest) store.getRequests(LocalDate.of(2026, 2, 3)).get(1)).getReason());
+    }
+
+    @Test
+    void rewrittenOrInvalidatedFileIsParsedAgain() throws Exception {
+        Path csv = tempDir.resolve("changing.csv");
+        Files.writeString(csv, String.join("\n", HEADER, "2026-02-01,Brown,2/3/2026,Avoid,10:00,0.5,Planning"));
+        RequestStore store = RequestStore.forFile(csv.toFile());
+        assertEquals(1, store.getRequests(LocalDate.of(2026, 2, 3)).size());
+
+        // The last row grows instead of a new row following it
+        Files.writeString(csv, " notes", StandardOpenOption.APPEND);
+        assertEquals("Planning notes", ((TeacherTimeRequest) store.getRequests(LocalDate.of(2026, 2, 3)).get(0)).getReason());
+        assertEquals(2, store.getParseCount());
+
+        Files.writeString(csv, String.join("\n", HEADER,
+                "2026-02-01,Gray,2/3/2026,Avoid,13:45,1.0,Meeting",
+                "2026-02-01,Brown,2/3/2026,Avoid,10:00,0.5,Planning notes",
+                "2026-02-01,Lane,2/3/2026,Avoid,11:15,1.0,Call"));
+        assertEquals(List.of("Gray", "Brown", "Lane"), names(store.getRequests(LocalDate.of(2026, 2, 3))));
+        assertEquals(3, store.getParseCount());
+
+        store.invalidate();
+        store.getRequests(LocalDate.of(2026, 2, 3));
+        assertEquals(4, store.getParseCount());
+        assertEquals(0, store.getAppendCount());
+    }
+
+    @Test
+    void rowEditedInPlaceIsParsedAgain() throws Exception {
+        Path csv = tempDir.resolve("edited.csv");
+        Files.writeString(csv, String.join("\n", HEADER,
+                "2026-02-01,Brown,2/3/2026,Avoid,10:00,0.5,Planning",
+                "2026-02-01,Gray,2/3/2026,Avoid,13:45,1.0,Meeting", ""));
+        RequestStore store = RequestStore.forFile(csv.toFile());
+        assertEquals(2, store.getRequests(LocalDate.of(2026, 2, 3)).size());
+        FileTime read = Files.getLastModifiedTime(csv);
+
+        // Same length, so only the modification time tells the edit apart
+        Files.writeString(csv, Files.readString(csv).replace("10:00", "11:00"));
+        Files.setLastModifiedTime(csv, FileTime.fromMillis(read.toMillis() + 2000));
+        assertEquals(LocalTime.of(11, 0), ((TeacherTimeRequest) store.getRequests(LocalDate.of(2026, 2, 3)).get(0)).getStartTime());
+        assertEquals(2, store.getParseCount());
+
+        // An earlier row changes while a new one is appended
+        Files.writeString(csv, Files.readString(csv).replace("Planning", "Planned!")
+                + "2026-02-01,Lane,2/3/2026,Avoid,8:00,1.0,Call\n");
+        List<TeacherRequest> requests = store.getRequests(LocalDate.of(2026, 2, 3));
+        assertEquals(List.of("Brown", "Gray", "Lane"), names(requests));
+        assertEquals("Planned!", requests.get(0).getReason());
+        assertEquals(3, store.getParseCount());
+        assertEquals(0, store.getAppendCount());
+    }
+
+    private static List<String> names(List<TeacherRequest> requests) {
+        return requests.stream().map(r -> r.getTeacher().getName()).toList();
+    }
+}
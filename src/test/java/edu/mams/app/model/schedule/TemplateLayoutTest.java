@@ -0,0 +1,58 @@
+package edu.mams.app.model.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TemplateLayoutTest {
+
+    @Test
+    void compileTypesSlotsAndNumbersClassBlocks() {
+        DayTemplate template = new DayTemplate("Layout Test", List.of(
+                new BlockDefinition("ClassBlock", LocalTime.of(7, 45), Duration.ofMinutes(55), null),
+                new BlockDefinition("AllSchoolEvent", LocalTime.of(8, 40), Duration.ofMinutes(20), "Assembly"),
+                new BlockDefinition("AllSchoolEvent", LocalTime.of(9, 0), Duration.ofMinutes(60), " pe "),
+                new BlockDefinition("Unknown", LocalTime.of(10, 0), Duration.ofMinutes(5), null),
+                new BlockDefinition("ClassBlock", LocalTime.of(10, 15), Duration.ofMinutes(55), null)
+        ));
+
+        TemplateLayout layout = TemplateLayout.compile(template);
+
+        assertEquals(List.of(TemplateLayout.SlotType.CLASS, TemplateLayout.SlotType.EVENT,
+                        TemplateLayout.SlotType.PE, TemplateLayout.SlotType.CLASS),
+                layout.getSlots().stream().map(TemplateLayout.Slot::type).toList());
+        assertEquals(2, layout.getClassBlockCount());
+        assertEquals(3, layout.getClassSlot(1));
+        assertEquals(465, layout.getSlots().get(0).startMinute());
+        assertEquals(520, layout.getSlots().get(0).endMinute());
+    }
+
+    @Test
+    void managerRecompilesLayoutWhenTemplateChanges() {
+        String name = "Layout Cache Test";
+        try {
+            TemplateManager.addTemplate(new DayTemplate(name, List.of(
+                    new BlockDefinition("ClassBlock", LocalTime.of(8, 0), Duration.ofMinutes(60), null))));
+            TemplateLayout first = TemplateManager.getLayout(name);
+            assertSame(first, TemplateManager.getLayout(name));
+            assertEquals(1, first.getClassBlockCount());
+
+            TemplateManager.addTemplate(new DayTemplate(name, List.of(
+                    new BlockDefinition("ClassBlock", LocalTime.of(8, 0), Duration.ofMinutes(60), null),
+                    new BlockDefinition("ClassBlock", LocalTime.of(9, 0), Duration.ofMinutes(60), null))));
+            TemplateLayout second = TemplateManager.getLayout(name);
+            assertNotSame(first, second);
+            assertEquals(2, second.getClassBlockCount());
+        } finally {
+            TemplateManager.removeTemplate(name);
+        }
+        assertNull(TemplateManager.getLayout(name));
+    }
+}
@@ -2,6 +2,8 @@ package edu.mams.app.model.schedule;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -52,4 +54,25 @@ class WeekTest {
         assertEquals(1, originalDay.getClasses().size());
         assertEquals(LocalTime.of(7, 45), originalDay.getEntries().getFirst().getStart());
     }
+
+    @Test
+    void loadRequestsFromFileFillsEachDayOfTheWeek() throws Exception {
+        Path csv = Files.createTempFile("week-requests", ".csv");
+        try {
+            Files.writeString(csv, String.join("\n",
+                    "Timestamp,Teacher,Date,Type,Time,Duration,Reason",
+                    "2026-02-01,Brown,2/4/2026,Avoid,10:00,0.5,Planning",
+                    "2026-02-01,Smith,2/2/2026,All School,7:45,1.0,Assembly",
+                    "2026-02-01,Gray,2/9/2026,Avoid,13:45,1.0,Next week"
+            ));
+            Week week = new Week(LocalDate.of(2026, 2, 2), 1);
+
+            week.loadRequests(csv.toFile());
+
+            assertEquals(List.of(1, 0, 1, 0, 0), week.getDays().stream().map(d -> d.getRequests().size()).toList());
+            assertEquals("Brown", week.getDay(LocalDate.of(2026, 2, 4)).getRequests().get(0).getTeacher().getName());
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
 }
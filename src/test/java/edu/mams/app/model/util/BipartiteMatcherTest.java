@@ -0,0 +1,55 @@
+package edu.mams.app.model.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class BipartiteMatcherTest {
+
+    @Test
+    void maxMatchingFindsPerfectMatchingThroughAugmentingPaths() {
+        // Greedy in list order would match 0-0 and strand vertex 1
+        int[][] adj = {
+                {0, 1},
+                {0},
+                {1, 2}
+        };
+
+        BipartiteMatcher matcher = new BipartiteMatcher(3, adj);
+
+        assertEquals(3, matcher.maxMatching());
+        assertEquals(0, matcher.matchOfLeft(1));
+        assertEquals(1, matcher.matchOfLeft(0));
+        assertEquals(2, matcher.matchOfLeft(2));
+    }
+
+    @Test
+    void maxMatchingReportsDeficiencyWhenHallConditionFails() {
+        int[][] adj = {
+                {0},
+                {0},
+                {1, 2}
+        };
+
+        BipartiteMatcher matcher = new BipartiteMatcher(3, adj);
+
+        assertEquals(2, matcher.maxMatching());
+        assertNotEquals(matcher.matchOfLeft(0), matcher.matchOfLeft(1));
+    }
+
+    @Test
+    void deficientLeftReturnsHallViolator() {
+        int[][] adj = {
+                {0},
+                {0},
+                {1, 2}
+        };
+
+        BipartiteMatcher matcher = new BipartiteMatcher(3, adj);
+        matcher.maxMatching();
+
+        assertArrayEquals(new int[]{0, 1}, matcher.deficientLeft());
+    }
+}
@@ -0,0 +1,87 @@
+package edu.mams.app.model.util;
+
+import edu.mams.app.model.schedule.AllSchoolBlock;
+import edu.mams.app.model.schedule.BlockDefinition;
+import edu.mams.app.model.schedule.ClassBlock;
+import edu.mams.app.model.schedule.DayTemplate;
+import edu.mams.app.model.schedule.Event;
+import edu.mams.app.model.schedule.ScheduleEntry;
+import edu.mams.app.model.schedule.TemplateLayout;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BlockIndexTest {
+
+    @Test
+    void overlapMatchesPairwiseIntersectionOnRandomDays() {
+        SplittableRandom random = new SplittableRandom(11L);
+        for (int trial = 0; trial < 200; trial++) {
+            List<ScheduleEntry> entries = new ArrayList<>();
+            int count = 1 + random.nextInt(8);
+            for (int i = 0; i < count; i++) {
+                LocalTime start = LocalTime.of(7, 0).plusMinutes(random.nextInt(480));
+                entries.add(new ClassBlock(start, Duration.ofMinutes(15 + random.nextInt(90)), new HashMap<>()));
+            }
+            BlockIndex index = BlockIndex.of(entries, entry -> true);
+
+            int start = 400 + random.nextInt(480);
+            int end = start + random.nextInt(120);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                int blockStart = BlockIndex.minuteOf(entries.get(i).getStart());
+                int blockEnd = blockStart + BlockIndex.minutesOf(entries.get(i).getLength());
+                if (blockStart < end && start < blockEnd) expected.add(i);
+            }
+            List<Integer> actual = new ArrayList<>();
+            index.forEachOverlap(start, end, actual::add);
+
+            assertEquals(expected, actual.stream().sorted().toList());
+        }
+    }
+
+    @Test
+    void nearestStartSkipsOtherEntriesAndRemovedBlocks() {
+        List<ScheduleEntry> entries = List.of(
+                new ClassBlock(LocalTime.of(7, 45), Duration.ofMinutes(60), new HashMap<>()),
+                new ClassBlock(LocalTime.of(8, 45), Duration.ofMinutes(60), new HashMap<>()),
+                new AllSchoolBlock(LocalTime.of(9, 45), Duration.ofMinutes(30), new Event("Homeroom")),
+                new ClassBlock(LocalTime.of(10, 15), Duration.ofMinutes(60), new HashMap<>())
+        );
+        BlockIndex index = BlockIndex.of(entries, ClassBlock.class::isInstance);
+
+        assertEquals(3, index.nearestStart(BlockIndex.minuteOf(LocalTime.of(9, 50))));
+        assertEquals(1, index.nearestStart(BlockIndex.minuteOf(LocalTime.of(9, 0))));
+        // Equal distance to 8:45 and 10:15 goes to the earlier block
+        assertEquals(1, index.nearestStart(BlockIndex.minuteOf(LocalTime.of(9, 30))));
+
+        index.remove(1);
+        assertEquals(0, index.nearestStart(BlockIndex.minuteOf(LocalTime.of(8, 45))));
+        index.remove(0);
+        index.remove(3);
+        assertEquals(-1, index.nearestStart(0));
+    }
+
+    @Test
+    void classSlotIndexUsesSlotPositionsAndSkipsOtherSlots() {
+        TemplateLayout layout = TemplateLayout.compile(new DayTemplate("Index Test", List.of(
+                new BlockDefinition("ClassBlock", LocalTime.of(7, 45), Duration.ofMinutes(60), null),
+                new BlockDefinition("AllSchoolEvent", LocalTime.of(8, 45), Duration.ofMinutes(30), "Homeroom"),
+                new BlockDefinition("ClassBlock", LocalTime.of(9, 15), Duration.ofMinutes(60), null),
+                new BlockDefinition("ClassBlock", LocalTime.of(10, 15), Duration.ofMinutes(60), null)
+        )));
+        BlockIndex index = BlockIndex.ofClassSlots(layout);
+
+        assertEquals(2, index.nearestStart(BlockIndex.minuteOf(LocalTime.of(8, 50))));
+        List<Integer> overlapping = new ArrayList<>();
+        index.forEachOverlap(BlockIndex.minuteOf(LocalTime.of(8, 30)), BlockIndex.minuteOf(LocalTime.of(9, 30)), overlapping::add);
+        assertEquals(List.of(0, 2), overlapping);
+    }
+}
@@ -0,0 +1,56 @@
+package edu.mams.app.model.util;
+
+import edu.mams.app.model.people.Section;
+import edu.mams.app.model.people.Teacher;
+import edu.mams.app.model.schedule.AllSchoolBlock;
+import edu.mams.app.model.schedule.Assignment;
+import edu.mams.app.model.schedule.ClassBlock;
+import edu.mams.app.model.schedule.Course;
+import edu.mams.app.model.schedule.Event;
+import edu.mams.app.model.schedule.ScheduleEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DayModelTest {
+
+    @Test
+    void classIdMatchesIndexOfIncludingMissingAndEqualCopies() {
+        Course math = new Course("Math", new Teacher("Durost"));
+        Course physics = new Course("Physics", new Teacher("Chase"));
+        DayModel model = new DayModel(List.of(), List.of(new Section("R")), List.of(math, physics));
+
+        assertEquals(0, model.classId(math));
+        assertEquals(1, model.classId(new Course("Physics", new Teacher("Someone else"))));
+        assertEquals(-1, model.classId(new Course("CS", new Teacher("Taricco"))));
+        assertEquals(-1, model.classId(null));
+    }
+
+    @Test
+    void materializeWritesOnlyClassBlocksAndSectionColumns() {
+        Course math = new Course("Math", new Teacher("Durost"));
+        Course physics = new Course("Physics", new Teacher("Chase"));
+        Section r = new Section("R");
+        Section g = new Section("G");
+        ClassBlock first = new ClassBlock(LocalTime.of(7, 45), Duration.ofMinutes(60), new HashMap<>());
+        ClassBlock second = new ClassBlock(LocalTime.of(9, 15), Duration.ofMinutes(60), new HashMap<>());
+        List<ScheduleEntry> entries = List.of(first,
+                new AllSchoolBlock(LocalTime.of(8, 45), Duration.ofMinutes(30), new Event("Homeroom")), second);
+        DayModel model = new DayModel(entries, List.of(r, g), List.<Assignment>of(math, physics));
+
+        model.materialize(new int[][]{{0, 1, 1}, {1, 0, 0}});
+
+        assertEquals(2, model.blockCount());
+        assertSame(second, model.block(1));
+        assertEquals(2, first.getSectionCourses().size());
+        assertEquals(math, first.getSectionCourses().get(r));
+        assertEquals(physics, first.getSectionCourses().get(g));
+        assertEquals(physics, second.getSectionCourses().get(r));
+    }
+}
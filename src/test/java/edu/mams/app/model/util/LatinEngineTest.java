@@ -0,0 +1,57 @@
+package edu.mams.app.model.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LatinEngineTest {
+
+    @Test
+    void lubyFollowsTheRestartSequence() {
+        long[] expected = {1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 1};
+        long[] actual = new long[expected.length];
+        for (int i = 0; i < expected.length; i++) {
+            actual[i] = LatinEngine.luby(i + 1);
+        }
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void searchProvesInfeasibilityEvenWithTinyRestartBudget() {
+        // Rows 0-3 only accept values 0-2, so each column would need four distinct values out of three
+        int n = 6;
+        int[][] partial = new int[n][3];
+        boolean[][] forbidden = new boolean[n][n];
+        for (int r = 0; r < n; r++) {
+            Arrays.fill(partial[r], -1);
+            for (int v = 3; v < n && r < 4; v++) {
+                forbidden[r][v] = true;
+            }
+        }
+
+        LatinEngine engine = new LatinEngine(partial, forbidden, new Random(7));
+
+        assertEquals(LatinEngine.Outcome.EXHAUSTED, engine.solve(() -> false, 1));
+    }
+
+    @Test
+    void solveStopsWhenTheThreadIsInterrupted() {
+        int[][] grid = new int[60][60];
+        for (int[] row : grid) Arrays.fill(row, -1);
+        LatinEngine engine = new LatinEngine(grid, null, new Random(3L));
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, engine::solve);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
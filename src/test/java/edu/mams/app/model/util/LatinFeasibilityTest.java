@@ -0,0 +1,82 @@
+package edu.mams.app.model.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatinFeasibilityTest {
+
+    @Test
+    void checkPassesForCompletableGrid() {
+        int[][] grid = {
+                {0, -1, -1},
+                {-1, 2, -1},
+                {-1, -1, 1}
+        };
+
+        assertTrue(LatinFeasibility.check(grid, null).isEmpty());
+    }
+
+    @Test
+    void checkNamesValueWithTooFewAllowedRows() {
+        // Value 0 may only sit in row 0, but both columns need it
+        boolean[][] forbidden = new boolean[4][4];
+        forbidden[1][0] = true;
+        forbidden[2][0] = true;
+        forbidden[3][0] = true;
+
+        List<LatinFeasibility.Conflict> conflicts = LatinFeasibility.check(emptyGrid(4, 2), forbidden);
+
+        LatinFeasibility.Conflict conflict = conflicts.stream()
+                .filter(c -> c.kind() == LatinFeasibility.Line.VALUE)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, conflict.line());
+        assertArrayEquals(new int[]{0, 1}, conflict.members());
+        assertArrayEquals(new int[]{0}, conflict.options());
+    }
+
+    @Test
+    void checkNamesRowsCompetingForTheSameValues() {
+        // Rows 0 and 1 both allow only value 2 in a single column
+        boolean[][] forbidden = new boolean[3][3];
+        forbidden[0][0] = true;
+        forbidden[0][1] = true;
+        forbidden[1][0] = true;
+        forbidden[1][1] = true;
+
+        List<LatinFeasibility.Conflict> conflicts = LatinFeasibility.check(emptyGrid(3, 1), forbidden);
+
+        LatinFeasibility.Conflict conflict = conflicts.get(0);
+        assertEquals(LatinFeasibility.Line.COLUMN, conflict.kind());
+        assertArrayEquals(new int[]{0, 1}, conflict.members());
+        assertArrayEquals(new int[]{2}, conflict.options());
+    }
+
+    @Test
+    void checkNamesRowWhoseFixedCellsExhaustItsValues() {
+        // Row 0 lacks only value 1, which column 1 already holds
+        int[][] grid = {
+                {0, -1, 2},
+                {-1, 1, -1},
+                {-1, -1, -1}
+        };
+
+        List<LatinFeasibility.Conflict> conflicts = LatinFeasibility.check(grid, null);
+
+        assertTrue(conflicts.stream().anyMatch(c -> c.kind() == LatinFeasibility.Line.ROW && c.line() == 0));
+    }
+
+    private static int[][] emptyGrid(int n, int cols) {
+        int[][] grid = new int[n][cols];
+        for (int[] row : grid) {
+            Arrays.fill(row, -1);
+        }
+        return grid;
+    }
+}
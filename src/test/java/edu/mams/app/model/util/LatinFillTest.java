@@ -2,6 +2,10 @@ package edu.mams.app.model.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class LatinFillTest {
@@ -33,6 +37,37 @@ class LatinFillTest {
         }
     }
 
+    @Test
+    void generateWithForbiddenFindsTightRectangle() {
+        int n = 6;
+        int cols = 2;
+        boolean[][] forbidden = new boolean[n][n];
+        for (int r = 0; r < n; r++) {
+            for (int v = 0; v < n; v++) {
+                forbidden[r][v] = v != r && v != (r + 1) % n;
+            }
+        }
+
+        int[][] grid = LatinFill.generate(n, cols, forbidden);
+
+        assertLatinProperties(grid, n, cols);
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < cols; c++) {
+                assertFalse(forbidden[r][grid[r][c]]);
+            }
+        }
+    }
+
+    @Test
+    void generateWithForbiddenThrowsWhenInfeasible() {
+        boolean[][] forbidden = new boolean[3][3];
+        for (int r = 0; r < 3; r++) {
+            forbidden[r][0] = true;
+        }
+
+        assertThrows(IllegalStateException.class, () -> LatinFill.generate(3, 1, forbidden));
+    }
+
     @Test
     void generateFromPartialExtendsValidSquare() {
         int[][] partial = {
@@ -49,6 +84,159 @@ class LatinFillTest {
         assertEquals(1, grid[2][2]);
     }
 
+    @Test
+    void generateFromPartialHandlesMoreThanSixtyFourValues() {
+        int n = 70;
+        int[][] partial = new int[n][n];
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                partial[r][c] = (r + c) % n;
+            }
+            partial[r][r] = -1;
+            partial[r][(r + 5) % n] = -1;
+        }
+
+        int[][] grid = LatinFill.generateFromPartial(partial, null);
+
+        assertLatinProperties(grid, n, n);
+        assertEquals(1, grid[0][1]);
+    }
+
+    @Test
+    void generateFromPartialWithDancingLinksExtendsValidSquare() {
+        int[][] partial = {
+                {0, -1, -1, -1, -1},
+                {-1, 2, -1, -1, -1},
+                {-1, -1, 1, -1, -1},
+                {-1, -1, -1, 4, -1},
+                {-1, -1, -1, -1, 3}
+        };
+
+        int[][] grid = LatinFill.generateFromPartial(partial, null, LatinSolver.DANCING_LINKS);
+
+        assertLatinProperties(grid, 5, 5);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(partial[i][i], grid[i][i]);
+        }
+    }
+
+    @Test
+    void generateFromPartialWithPortfolioExtendsValidSquare() {
+        int[][] partial = {
+                {0, -1, -1, -1},
+                {-1, 2, -1, -1},
+                {-1, -1, 1, -1},
+                {-1, -1, -1, 3}
+        };
+
+        int[][] grid = LatinFill.generateFromPartial(partial, null, LatinSolver.portfolio(4));
+
+        assertLatinProperties(grid, 4, 4);
+        assertEquals(3, grid[3][3]);
+    }
+
+    @Test
+    void countCompletionsMatchesKnownLatinSquareCounts() {
+        assertEquals(12, LatinFill.countCompletions(emptyGrid(3, 3), null));
+        assertEquals(576, LatinFill.countCompletions(emptyGrid(4, 4), null));
+        assertEquals(161280, LatinFill.countCompletions(emptyGrid(5, 5), null));
+    }
+
+    @Test
+    void completionsEnumeratesEveryCompletionOnce() {
+        int[][] partial = emptyGrid(5, 3);
+        partial[0][0] = 2;
+        partial[3][1] = 4;
+        boolean[][] forbidden = new boolean[5][5];
+        forbidden[1][0] = true;
+        forbidden[2][3] = true;
+
+        List<int[][]> all = LatinFill.completions(partial, forbidden).toList();
+
+        assertEquals(LatinFill.countCompletions(partial, forbidden), all.size());
+        assertEquals(all.size(), all.stream().map(Arrays::deepToString).distinct().count());
+        for (int[][] grid : all) {
+            assertLatinProperties(grid, 5, 3);
+            assertEquals(2, grid[0][0]);
+            assertEquals(4, grid[3][1]);
+            for (int c = 0; c < 3; c++) {
+                assertFalse(forbidden[1][grid[1][c]]);
+                assertFalse(forbidden[2][grid[2][c]]);
+            }
+        }
+    }
+
+    @Test
+    void closestCompletionChangesNoMoreCellsThanAnyOtherCompletion() {
+        Random random = new Random(7L);
+        for (int trial = 0; trial < 30; trial++) {
+            int[][] target = LatinFill.generate(5, 4, random);
+            boolean[][] forbidden = new boolean[5][5];
+            forbidden[random.nextInt(5)][random.nextInt(5)] = true;
+            forbidden[random.nextInt(5)][random.nextInt(5)] = true;
+            int[][] partial = emptyGrid(5, 4);
+            for (int r = 0; r < 5; r++) {
+                for (int c = 0; c < 4; c++) {
+                    if (random.nextInt(3) == 0 && !forbidden[r][target[r][c]]) partial[r][c] = target[r][c];
+                }
+            }
+            int[][] partialCopy = Arrays.stream(partial).map(int[]::clone).toArray(int[][]::new);
+
+            int fewest = LatinFill.completions(partial, forbidden)
+                    .mapToInt(grid -> changes(target, grid)).min().orElse(-1);
+            int[][] closest = LatinFill.closestCompletion(partial, forbidden, target);
+
+            if (fewest < 0) {
+                assertNull(closest);
+                continue;
+            }
+            assertLatinProperties(closest, 5, 4);
+            assertEquals(fewest, changes(target, closest), "trial " + trial);
+            assertTrue(Arrays.deepEquals(partialCopy, partial));
+        }
+    }
+
+    @Test
+    void closestCompletionWithinBudgetFallsBackToAnyCompletion() {
+        int[][] target = LatinFill.generate(8, 6, new Random(1L));
+        boolean[][] forbidden = new boolean[8][8];
+        for (int r = 0; r < 8; r++) forbidden[r][target[r][0]] = true;
+
+        LatinFill.Closest closest = LatinFill.closestCompletion(emptyGrid(8, 6), forbidden, target, 1);
+
+        assertFalse(closest.minimal());
+        assertLatinProperties(closest.grid(), 8, 6);
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 6; c++) assertFalse(forbidden[r][closest.grid()[r][c]]);
+        }
+        assertTrue(LatinFill.closestCompletion(emptyGrid(8, 6), forbidden, target, Long.MAX_VALUE).minimal());
+    }
+
+    private static int changes(int[][] before, int[][] after) {
+        int changes = 0;
+        for (int r = 0; r < before.length; r++) {
+            for (int c = 0; c < before[r].length; c++) {
+                if (before[r][c] != after[r][c]) changes++;
+            }
+        }
+        return changes;
+    }
+
+    @Test
+    void generateFromPartialThrowsWhenNoCompletionExists() {
+        int[][] partial = {
+                {0, -1, -1},
+                {-1, 0, -1},
+                {-1, -1, 1}
+        };
+
+        assertThrows(IllegalStateException.class, () -> LatinFill.generateFromPartial(partial, null));
+        assertThrows(IllegalStateException.class,
+                () -> LatinFill.generateFromPartial(partial, null, LatinSolver.DANCING_LINKS));
+        assertThrows(IllegalStateException.class,
+                () -> LatinFill.generateFromPartial(partial, null, LatinSolver.portfolio(3)));
+    }
+
     @Test
     void generateFromPartialRejectsInvalidInput() {
         int[][] invalid = {
@@ -59,6 +247,14 @@ class LatinFillTest {
         assertThrows(IllegalArgumentException.class, () -> LatinFill.generateFromPartial(invalid, null));
     }
 
+    private static int[][] emptyGrid(int n, int cols) {
+        int[][] grid = new int[n][cols];
+        for (int[] row : grid) {
+            Arrays.fill(row, -1);
+        }
+        return grid;
+    }
+
     private static void assertLatinProperties(int[][] grid, int n, int cols) {
         assertEquals(n, grid.length);
         for (int r = 0; r < n; r++) {
@@ -3,10 +3,15 @@ package edu.mams.app.model.util;
 import edu.mams.app.model.people.Section;
 import edu.mams.app.model.people.Teacher;
 import edu.mams.app.model.requests.AllSchoolRequest;
-import edu.mams.app.model.requests.TeacherRequest;
+import edu.mams.app.model.requests.AvoidTimeRequest;
 import edu.mams.app.model.schedule.Assignment;
+import edu.mams.app.model.schedule.ClassBlock;
+import edu.mams.app.model.schedule.Course;
 import edu.mams.app.model.schedule.Day;
+import edu.mams.app.model.schedule.PEBlock;
 import edu.mams.app.model.schedule.ScheduleEntry;
+import edu.mams.app.model.schedule.SplitCourse;
+import edu.mams.app.model.schedule.Week;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
@@ -16,6 +21,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ScheduleBuilderTest {
 
@@ -40,31 +48,174 @@ class ScheduleBuilderTest {
         assertEquals(originalNames, day.getClasses().stream().map(Assignment::getName).toList());
     }
 
-    private static Day buildDayWithAllSchoolRequest() {
-        List<Assignment> classes = new ArrayList<>(List.of(
-                new edu.mams.app.model.schedule.Course("Math", new Teacher("Durost")),
-                new edu.mams.app.model.schedule.Course("Physics", new Teacher("Chase")),
-                new edu.mams.app.model.schedule.Course("CS", new Teacher("Taricco")),
-                new edu.mams.app.model.schedule.Course("STEM", new Teacher("Crowthers")),
-                new edu.mams.app.model.schedule.Course("Hum", new Teacher("Small")),
-                new edu.mams.app.model.schedule.Course("Lang", new Teacher("Wildfong"))
+    @Test
+    void seededContextReproducesTheSameWeek() {
+        Week first = ScheduleFixtures.week(5);
+        Week second = ScheduleFixtures.week(5);
+
+        List<String> templates = List.of("Homeroom Day", "Class Meeting Day", "Homeroom Day", "Class Meeting Day", "Homeroom Day");
+
+        first.generateBlocks(templates, GenerationContext.seeded(42L));
+        second.generateBlocks(templates, GenerationContext.seeded(42L));
+
+        for (int d = 0; d < first.getDays().size(); d++) {
+            Day a = first.getDays().get(d);
+            Day b = second.getDays().get(d);
+            for (Section section : a.getSections()) {
+                assertEquals(a.getSectionSchedule(section), b.getSectionSchedule(section));
+            }
+        }
+    }
+
+    @Test
+    void infeasibleRequestsFailBeforeSearchWithNamedConflict() {
+        Day day = buildDayWithAllSchoolRequest();
+        Assignment math = day.getClasses().get(0);
+        day.getRequests().add(new AvoidTimeRequest(
+                new Teacher("Durost"),
+                math,
+                "Conference",
+                Duration.ofMinutes(270),
+                LocalTime.of(10, 15)
         ));
 
-        Day day = new Day(
-                LocalDate.of(2026, 2, 3),
-                12,
-                new ArrayList<>(List.of(new Section("R"), new Section("G"), new Section("B"))),
-                new ArrayList<>(classes)
-        );
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> ScheduleBuilder.buildNewNoSplitSchedule("Homeroom Day", day));
+
+        assertTrue(ex.getMessage().contains("Math must meet sections R, G, B"), ex.getMessage());
+        assertTrue(ex.getMessage().contains("07:45"), ex.getMessage());
+        assertTrue(ex.getMessage().contains("Durost avoids Math at 10:15 (Conference)"), ex.getMessage());
+    }
+
+    @Test
+    void buildNewSplitScheduleHonoursAvoidTimeRequests() {
+        Day day = buildDayWithAllSchoolRequest();
+        Assignment math = day.getClasses().get(0);
+        day.setSplitCourse((Course) day.getClasses().get(2));
+        day.getRequests().add(new AvoidTimeRequest(new Teacher("Durost"), math, "Conference",
+                Duration.ofMinutes(60), LocalTime.of(7, 45)));
+        Course previous = ScheduleBuilder.getSplitClass();
+        ScheduleBuilder.setSplitClass((Course) day.getClasses().get(5));
+        try {
+            List<ScheduleEntry> entries = ScheduleBuilder.buildNewSplitSchedule("Homeroom Day", day, GenerationContext.seeded(7L));
+
+            ClassBlock first = (ClassBlock) entries.get(0);
+            assertTrue(first.getSectionCourses().values().stream().noneMatch(math::equals));
+        } finally {
+            ScheduleBuilder.setSplitClass(previous);
+        }
+    }
+
+    @Test
+    void builderInstanceUsesItsOwnConfigWithoutTouchingGlobalSettings() {
+        Day day = buildDayWithAllSchoolRequest();
+        BuilderConfig global = ScheduleBuilder.getConfig();
+        BuilderConfig config = global.withPeDefaults("Blue", "Gold", "Swim", "Yoga");
+
+        List<ScheduleEntry> entries = new ScheduleBuilder(config).expand("PE Day", day.getRequests(), day.getClasses(), day.getDate());
+
+        PEBlock pe = entries.stream().filter(PEBlock.class::isInstance).map(PEBlock.class::cast).findFirst().orElseThrow();
+        assertEquals("Blue", pe.getGroupAName());
+        assertEquals("Gold", pe.getGroupBName());
+        assertTrue(List.of("Swim", "Yoga").contains(pe.getGroupAActivity()));
+        assertSame(global, ScheduleBuilder.getConfig());
+    }
+
+    @Test
+    void buildSplitFallsBackToAnotherPlacementWhenOneConflicts() {
+        Day day = buildDayWithAllSchoolRequest();
+        Course lang = (Course) day.getClasses().get(5);
+        day.setSplitCourse((Course) day.getClasses().get(2));
+        day.getRequests().add(new AvoidTimeRequest(new Teacher("Wildfong"), lang, "Lab",
+                Duration.ofMinutes(60), LocalTime.of(13, 45)));
+        ScheduleBuilder builder = new ScheduleBuilder(BuilderConfig.defaults().withSplitClass(lang));
+
+        for (long seed = 0; seed < 20; seed++) {
+            List<ScheduleEntry> entries = builder.buildSplit("Homeroom Day", day, GenerationContext.seeded(seed));
+
+            ClassBlock last = (ClassBlock) entries.get(entries.size() - 1);
+            assertTrue(last.getSectionCourses().values().stream()
+                    .noneMatch(a -> a.equals(lang) || a instanceof SplitCourse));
+        }
+    }
+
+    @Test
+    void buildSplitReportsEveryPlacementWhenNoneWorks() {
+        Day day = buildDayWithAllSchoolRequest();
+        Course lang = (Course) day.getClasses().get(5);
+        day.setSplitCourse((Course) day.getClasses().get(2));
+        day.getRequests().add(new AvoidTimeRequest(new Teacher("Wildfong"), lang, "Lab",
+                Duration.ofMinutes(210), LocalTime.of(11, 15)));
+        ScheduleBuilder builder = new ScheduleBuilder(BuilderConfig.defaults().withSplitClass(lang));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> builder.buildSplit("Homeroom Day", day, GenerationContext.seeded(1L)));
+
+        assertTrue(ex.getMessage().startsWith("The day cannot be scheduled with any split placement"), ex.getMessage());
+        assertEquals(6, ex.getMessage().split("Split blocks at", -1).length - 1, ex.getMessage());
+        assertTrue(ex.getMessage().contains("Wildfong avoids Lang at 11:15 (Lab)"), ex.getMessage());
+    }
+
+    @Test
+    void repairMovesOnlyTheAffectedSectionAfterANewAvoidRequest() {
+        Day day = buildDayWithAllSchoolRequest();
+        day.setEntries(ScheduleBuilder.buildNewNoSplitSchedule("Homeroom Day", day, GenerationContext.seeded(4L)));
+        Section green = day.getSections().get(1);
+        List<Assignment> before = cells(day);
+
+        ClassBlock first = (ClassBlock) day.getEntries().get(0);
+        Assignment moved = first.getSectionCourses().get(green);
+        day.getRequests().add(new AvoidTimeRequest(new Teacher("Someone"), moved, "Meeting",
+                Duration.ofMinutes(60), LocalTime.of(7, 45)));
+        assertEquals(1, ScheduleBuilder.countRequestViolations(day));
 
-        TeacherRequest request = new AllSchoolRequest(
+        ScheduleBuilder.Repair repair = ScheduleBuilder.repairSchedule(day);
+
+        assertEquals(0, ScheduleBuilder.countRequestViolations(day));
+        // The broken cell must change, and its column stays a permutation, so a swap is the least
+        assertEquals(2, repair.changedCells());
+        assertTrue(repair.minimal());
+        List<Assignment> after = cells(day);
+        int changed = 0;
+        for (int i = 0; i < before.size(); i++) {
+            if (!before.get(i).equals(after.get(i))) {
+                changed++;
+                assertEquals(1, i % 3, "only section G should move");
+            }
+        }
+        assertEquals(repair.changedCells(), changed);
+    }
+
+    private static List<Assignment> cells(Day day) {
+        List<Assignment> cells = new ArrayList<>();
+        for (ScheduleEntry entry : day.getEntries()) {
+            if (entry instanceof ClassBlock classBlock) {
+                for (Section section : day.getSections()) {
+                    cells.add(classBlock.getSectionCourses().get(section));
+                }
+            }
+        }
+        return cells;
+    }
+
+    @Test
+    void repairLeavesASatisfiedDayUntouched() {
+        Day day = buildDayWithAllSchoolRequest();
+        day.setEntries(ScheduleBuilder.buildNewNoSplitSchedule("Homeroom Day", day, GenerationContext.seeded(4L)));
+
+        assertEquals(0, ScheduleBuilder.repairSchedule(day).changedCells());
+    }
+
+    private static Day buildDayWithAllSchoolRequest() {
+        Day day = ScheduleFixtures.day(LocalDate.of(2026, 2, 3), 12);
+        Assignment hum = day.getClasses().get(4);
+        day.getRequests().add(new AllSchoolRequest(
                 new Teacher("Small"),
-                classes.get(4),
+                hum,
                 "Assembly",
                 Duration.ofMinutes(60),
                 LocalTime.of(8, 45)
-        );
-        day.setRequests(new ArrayList<>(List.of(request)));
+        ));
         return day;
     }
 }
@@ -0,0 +1,70 @@
+package edu.mams.app.model.util;
+
+import edu.mams.app.model.people.Section;
+import edu.mams.app.model.people.Teacher;
+import edu.mams.app.model.schedule.Assignment;
+import edu.mams.app.model.schedule.Course;
+import edu.mams.app.model.schedule.Day;
+import edu.mams.app.model.schedule.Week;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The small school the scheduling tests share: sections R, G and B taking six classes, each
+ * with its own teacher.
+ */
+final class ScheduleFixtures {
+    private ScheduleFixtures() {
+    }
+
+    /**
+     * Sections R, G and B.
+     */
+    static List<Section> sections() {
+        return List.of(new Section("R"), new Section("G"), new Section("B"));
+    }
+
+    /**
+     * Math, Physics, CS, STEM, Hum and Lang, in that order; Hum is taught by Small and Lang by
+     * Wildfong.
+     */
+    static List<Assignment> classes() {
+        return List.of(
+                new Course("Math", new Teacher("Durost")),
+                new Course("Physics", new Teacher("Chase")),
+                new Course("CS", new Teacher("Taricco")),
+                new Course("STEM", new Teacher("Crowthers")),
+                new Course("Hum", new Teacher("Small")),
+                new Course("Lang", new Teacher("Wildfong"))
+        );
+    }
+
+    /**
+     * A day of every section and class with an empty, editable request list.
+     */
+    static Day day(LocalDate date, int dayNumber) {
+        return day(date, dayNumber, sections(), classes());
+    }
+
+    /**
+     * Consecutive days from Monday 2026-02-02, numbered from 10, sharing one set of sections
+     * and classes.
+     */
+    static Week week(int days) {
+        List<Section> sections = sections();
+        List<Assignment> classes = classes();
+        List<Day> list = new ArrayList<>();
+        for (int d = 0; d < days; d++) {
+            list.add(day(LocalDate.of(2026, 2, 2).plusDays(d), 10 + d, sections, classes));
+        }
+        return new Week(list);
+    }
+
+    private static Day day(LocalDate date, int dayNumber, List<Section> sections, List<Assignment> classes) {
+        Day day = new Day(date, dayNumber, new ArrayList<>(sections), classes);
+        day.setRequests(new ArrayList<>());
+        return day;
+    }
+}
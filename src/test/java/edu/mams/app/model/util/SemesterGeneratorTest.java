@@ -0,0 +1,85 @@
+package edu.mams.app.model.util;
+
+import edu.mams.app.model.people.Section;
+import edu.mams.app.model.schedule.Assignment;
+import edu.mams.app.model.schedule.ClassBlock;
+import edu.mams.app.model.schedule.Day;
+import edu.mams.app.model.schedule.Schedule;
+import edu.mams.app.model.schedule.Week;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SemesterGeneratorTest {
+    private static final List<Assignment> CLASSES = ScheduleFixtures.classes();
+    private static final List<Section> SECTIONS = ScheduleFixtures.sections();
+
+    @Test
+    void generateContinuesDayNumbersAndStoresEveryWeek() {
+        Schedule schedule = new Schedule();
+        schedule.addWeek(new Week(LocalDate.of(2025, 9, 1), 10));
+
+        // Wednesday to Friday of the following week, with a holiday on the Monday after
+        SemesterGenerator.Plan plan = plan(LocalDate.of(2025, 9, 10), LocalDate.of(2025, 9, 26), Set.of(LocalDate.of(2025, 9, 15)));
+        SemesterGenerator.Result result = new SemesterGenerator(ForkJoinPool.commonPool(), BuilderConfig.defaults())
+                .generate(schedule, plan, GenerationContext.seeded(5L));
+
+        assertTrue(result.failures().isEmpty(), result.failures().toString());
+        assertEquals(12, result.days());
+        assertEquals(List.of(3, 4, 5), result.weeks().stream().map(w -> w.getDays().size()).toList());
+        assertEquals(15, result.weeks().get(0).getStartingDayNumber());
+        assertEquals(26, result.weeks().get(2).getEndingDayNumber());
+        assertEquals(LocalDate.of(2025, 9, 16), result.weeks().get(1).getStartingDate());
+        assertEquals(4, schedule.getWeeks().size());
+        for (Week week : result.weeks()) {
+            assertTrue(schedule.getWeek(week.getStartingDate()) == week);
+            for (Day day : week.getDays()) {
+                assertEquals(6, day.getEntries().stream().filter(ClassBlock.class::isInstance).count());
+            }
+        }
+    }
+
+    @Test
+    void seededContextReproducesTheTermOnAnyPool() {
+        SemesterGenerator.Plan plan = plan(LocalDate.of(2025, 9, 1), LocalDate.of(2025, 10, 31), Set.of());
+
+        Schedule first = new Schedule();
+        Schedule second = new Schedule();
+        new SemesterGenerator(new ForkJoinPool(1), BuilderConfig.defaults()).generate(first, plan, GenerationContext.seeded(9L));
+        new SemesterGenerator(new ForkJoinPool(4), BuilderConfig.defaults()).generate(second, plan, GenerationContext.seeded(9L));
+
+        assertEquals(first.getWeekStartDates(), second.getWeekStartDates());
+        for (LocalDate start : first.getWeekStartDates()) {
+            List<Day> a = first.getWeek(start).getDays();
+            List<Day> b = second.getWeek(start).getDays();
+            for (int d = 0; d < a.size(); d++) {
+                for (Section section : SECTIONS) {
+                    assertEquals(a.get(d).getSectionSchedule(section), b.get(d).getSectionSchedule(section));
+                }
+            }
+        }
+    }
+
+    @Test
+    void generateRejectsTermOverlappingScheduledWeeks() {
+        Schedule schedule = new Schedule();
+        schedule.addWeek(new Week(LocalDate.of(2025, 9, 1), 0));
+
+        SemesterGenerator generator = new SemesterGenerator();
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.generate(schedule, plan(LocalDate.of(2025, 9, 5), LocalDate.of(2025, 9, 30), Set.of()), GenerationContext.seeded(1L)));
+    }
+
+    private static SemesterGenerator.Plan plan(LocalDate start, LocalDate end, Set<LocalDate> closed) {
+        return new SemesterGenerator.Plan(start, end, List.of("Homeroom Day", "Class Meeting Day"), SECTIONS,
+                (date, template) -> new ArrayList<>(CLASSES), closed, null);
+    }
+}
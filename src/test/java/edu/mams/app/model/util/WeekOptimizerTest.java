@@ -0,0 +1,80 @@
+package edu.mams.app.model.util;
+
+import edu.mams.app.model.people.Section;
+import edu.mams.app.model.people.Teacher;
+import edu.mams.app.model.requests.AvoidTimeRequest;
+import edu.mams.app.model.schedule.Assignment;
+import edu.mams.app.model.schedule.ClassBlock;
+import edu.mams.app.model.schedule.Day;
+import edu.mams.app.model.schedule.ScheduleEntry;
+import edu.mams.app.model.schedule.Week;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeekOptimizerTest {
+    private static final List<String> TEMPLATES = List.of("Homeroom Day", "Class Meeting Day", "Homeroom Day", "Class Meeting Day", "Homeroom Day");
+
+    @Test
+    void optimizeLowersCostAndKeepsEveryDayValid() {
+        Week week = ScheduleFixtures.week(5);
+        WeekCost cost = WeekCost.SAME_CLASS_SAME_TIME.plus(WeekCost.BACK_TO_BACK_TEACHING.times(0.5));
+        WeekOptimizer optimizer = new WeekOptimizer(cost, Duration.ofMillis(300));
+
+        WeekOptimizer.Result result = optimizer.generate(week, TEMPLATES, GenerationContext.seeded(11L));
+
+        assertTrue(result.finalCost() <= result.initialCost());
+        assertEquals(result.finalCost(), cost.cost(week));
+        for (Day day : week.getDays()) {
+            assertLatin(day);
+        }
+    }
+
+    @Test
+    void optimizeNeverMovesClassIntoAvoidedTime() {
+        Week week = ScheduleFixtures.week(5);
+        Assignment math = week.getDays().get(0).getClasses().get(0);
+        AvoidTimeRequest request = new AvoidTimeRequest(new Teacher("Durost"), math, "Duty",
+                Duration.ofMinutes(60), LocalTime.of(7, 45));
+        for (Day day : week.getDays()) {
+            day.setRequests(new ArrayList<>(List.of(request)));
+        }
+
+        new WeekOptimizer(WeekCost.SAME_CLASS_SAME_TIME, Duration.ofMillis(200))
+                .generate(week, TEMPLATES, GenerationContext.seeded(3L));
+
+        for (Day day : week.getDays()) {
+            for (ScheduleEntry entry : day.getEntries()) {
+                if (entry instanceof ClassBlock classBlock && classBlock.intersects(request)) {
+                    assertFalse(classBlock.getSectionCourses().containsValue(math));
+                }
+            }
+        }
+    }
+
+    private static void assertLatin(Day day) {
+        for (Section section : day.getSections()) {
+            Set<Assignment> seen = new HashSet<>();
+            for (ScheduleEntry entry : day.getEntries()) {
+                if (entry instanceof ClassBlock classBlock) {
+                    assertTrue(seen.add(classBlock.getSectionCourses().get(section)));
+                }
+            }
+            assertEquals(new HashSet<>(day.getClasses()), seen);
+        }
+        for (ScheduleEntry entry : day.getEntries()) {
+            if (entry instanceof ClassBlock classBlock) {
+                assertEquals(day.getSections().size(), new HashSet<>(classBlock.getSectionCourses().values()).size());
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package edu.mams.app.model.util;
+
+import edu.mams.app.model.people.HalfSection;
+import edu.mams.app.model.people.Section;
+import edu.mams.app.model.requests.AvoidTimeRequest;
+import edu.mams.app.model.schedule.Assignment;
+import edu.mams.app.model.schedule.ClassBlock;
+import edu.mams.app.model.schedule.Course;
+import edu.mams.app.model.schedule.Day;
+import edu.mams.app.model.schedule.ScheduleEntry;
+import edu.mams.app.model.schedule.SplitCourse;
+import edu.mams.app.model.schedule.Week;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeekSolverTest {
+    private static final List<String> TEMPLATES = List.of("Homeroom Day", "Class Meeting Day", "Homeroom Day", "Class Meeting Day", "Homeroom Day");
+
+    @Test
+    void generateGivesEachSectionDistinctFirstBlocksUnderTightRequests() {
+        // Only five classes may meet first, so every section must use each of them exactly once
+        Week week = buildWeek(1);
+
+        for (long seed = 0; seed < 20; seed++) {
+            WeekSolver.DISTINCT_FIRST_BLOCKS.generate(week, TEMPLATES, GenerationContext.seeded(seed));
+
+            for (Section section : week.getDays().get(0).getSections()) {
+                Set<Assignment> firstBlocks = new HashSet<>();
+                for (Day day : week.getDays()) {
+                    assertTrue(firstBlocks.add(firstClassBlock(day).getSectionCourses().get(section)));
+                }
+            }
+            for (Day day : week.getDays()) {
+                assertLatin(day);
+                assertFalse(firstClassBlock(day).getSectionCourses().containsValue(day.getClasses().get(5)));
+            }
+        }
+    }
+
+    @Test
+    void generateRejectsWeekWhoseDaysOnlyFailTogether() {
+        // Each day can open with three of four allowed classes, but a week needs five
+        Week week = buildWeek(2);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> WeekSolver.DISTINCT_FIRST_BLOCKS.generate(week, TEMPLATES, GenerationContext.seeded(1L)));
+
+        assertTrue(ex.getMessage().contains("cross-day"), ex.getMessage());
+    }
+
+    @Test
+    void generateTriesOtherSplitPlacementsWhenTheFirstCombinationFails() {
+        // Lang may only split in the last two blocks, and G's Intermediate half sees Lang last
+        // under one placement and Hum under the other, so the days need different placements
+        Week week = ScheduleFixtures.week(2);
+        List<String> templates = List.of("Homeroom Day", "Homeroom Day");
+        Course lang = (Course) week.getDays().get(0).getClasses().get(5);
+        for (Day day : week.getDays()) {
+            day.setSplit(true);
+            day.setSplitCourse((Course) day.getClasses().get(4));
+            day.getRequests().add(new AvoidTimeRequest(lang.getTeacher(), lang, "Lab",
+                    Duration.ofMinutes(120), LocalTime.of(10, 15)));
+        }
+        WeekSolver solver = WeekSolver.distinctClassesAt(-1);
+        BuilderConfig config = BuilderConfig.defaults().withSplitClass(lang);
+        Section green = week.getDays().get(0).getSections().get(1);
+
+        for (long seed = 0; seed < 20; seed++) {
+            solver.generate(week, templates, GenerationContext.seeded(seed), config);
+
+            Set<Assignment> lastBlocks = new HashSet<>();
+            for (Day day : week.getDays()) {
+                SplitCourse split = (SplitCourse) lastClassBlock(day).getSectionCourses().get(green);
+                assertTrue(lastBlocks.add(intermediateHalf(split)));
+            }
+        }
+    }
+
+    private static ClassBlock firstClassBlock(Day day) {
+        for (ScheduleEntry entry : day.getEntries()) {
+            if (entry instanceof ClassBlock classBlock) {
+                return classBlock;
+            }
+        }
+        throw new AssertionError("no class block");
+    }
+
+    private static ClassBlock lastClassBlock(Day day) {
+        List<ScheduleEntry> entries = day.getEntries();
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            if (entries.get(i) instanceof ClassBlock classBlock) {
+                return classBlock;
+            }
+        }
+        throw new AssertionError("no class block");
+    }
+
+    private static Assignment intermediateHalf(SplitCourse split) {
+        for (Map.Entry<HalfSection, Assignment> half : split.getHalfSectionCourses().entrySet()) {
+            if (half.getKey().getName().equals("Intermediate")) {
+                return half.getValue();
+            }
+        }
+        throw new AssertionError("no Intermediate half");
+    }
+
+    private static void assertLatin(Day day) {
+        for (Section section : day.getSections()) {
+            Set<Assignment> seen = new HashSet<>();
+            for (ScheduleEntry entry : day.getEntries()) {
+                if (entry instanceof ClassBlock classBlock) {
+                    assertTrue(seen.add(classBlock.getSectionCourses().get(section)));
+                }
+            }
+            assertEquals(new HashSet<>(day.getClasses()), seen);
+        }
+    }
+
+    // Six classes; the last `avoidingFirstBlock` of them avoid the 7:45 block every day
+    private static Week buildWeek(int avoidingFirstBlock) {
+        Week week = ScheduleFixtures.week(5);
+        for (Day day : week.getDays()) {
+            List<Assignment> classes = day.getClasses();
+            for (int i = classes.size() - avoidingFirstBlock; i < classes.size(); i++) {
+                Course course = (Course) classes.get(i);
+                day.getRequests().add(new AvoidTimeRequest(course.getTeacher(), course, "Duty", Duration.ofMinutes(60), LocalTime.of(7, 45)));
+            }
+        }
+        return week;
+    }
+}